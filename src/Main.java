@@ -1,50 +1,31 @@
-import gui.LoginWindow;
-import database.DatabaseManager;
+import gui.DesktopApp;
+import logic.StartupTimer;
+import server.Daemon;
 
-import javax.swing.*;
+import java.util.Arrays;
 
 /**
  * SIDRS - Security Intrusion Detection & Response System
  * Main entry point for the application
  *
+ * Starts the desktop client by default. With --headless (or
+ * -Dsidrs.headless=true) runs as a server daemon instead, without loading
+ * AWT or Swing.
+ *
  * @author SIDRS Team - Sibathon 2024
  */
 public class Main {
 
     public static void main(String[] args) {  // FIXED: Removed <LoginWindow>
 
-        // Set system look and feel
-        try {
-            UIManager.setLookAndFeel(
-                    UIManager.getSystemLookAndFeelClassName()
-            );
-        } catch (Exception e) {
-            System.err.println("Failed to set Look & Feel");
-        }
-
-        // Check database connection before launching GUI
-        if (!DatabaseManager.testConnection()) {
+        StartupTimer.mark("main");
 
-            JOptionPane.showMessageDialog(
-                    null,
-                    "Database connection failed!\n\n" +
-                            "Please ensure:\n" +
-                            "1. MySQL is running\n" +
-                            "2. Database 'sidrs_db' exists\n" +
-                            "3. Credentials are correct",
-                    "Connection Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
-
-            System.exit(1);
+        if (Arrays.asList(args).contains("--headless") || Boolean.getBoolean("sidrs.headless")) {
+            System.out.println("SIDRS - Security System Started (headless)");
+            Daemon.run();
+        } else {
+            DesktopApp.launch();
+            System.out.println("SIDRS - Security System Started");
         }
-
-        // Start GUI on Event Dispatch Thread
-        SwingUtilities.invokeLater(() -> {
-            LoginWindow loginWindow = new LoginWindow();
-            loginWindow.setVisible(true);  // FIXED: Changed notifyAll() to setVisible(true)
-        });
-
-        System.out.println("SIDRS - Security System Started");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,634 @@
+package cluster;
+
+import logic.AccountLockout;
+import logic.BlockIndex;
+import logic.FailureTracker;
+import logic.FailureWindowTable;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster Node - Gossip replication of detection state between SIDRS nodes
+ *
+ * Every node counts failures in its own FailureWindowTable and sends the
+ * per-minute counts of keys that changed to every peer over UDP. Peers keep
+ * one table per remote node and merge by taking the maximum, so lost,
+ * duplicated or reordered packets never inflate a count. Cluster-wide
+ * totals are the local count plus each remote node's count, all read from
+ * memory.
+ *
+ * Block and unblock decisions are broadcast as last-writer-wins events and
+ * applied straight to the BlockIndex. Each event goes out in a few consecutive
+ * flushes because UDP can drop packets, and the index is also rebuilt from
+ * blocked_ips periodically to repair anything missed. Account unlocks go
+ * out the same way and make every node drop its lock and its counts for
+ * the username, which max-merging alone would bring back. Bulk changes
+ * instead ask every node to rebuild its index from the database.
+ *
+ * Configured with system properties; clustering is off unless peers are set:
+ * <pre>
+ *   -Dsidrs.cluster.port=7701
+ *   -Dsidrs.cluster.bind=127.0.0.1       (default; use 0.0.0.0 or a LAN address across hosts)
+ *   -Dsidrs.cluster.peers=127.0.0.1:7702,127.0.0.1:7703
+ *   -Dsidrs.cluster.nodeId=node-a        (default: host:port)
+ *   -Dsidrs.cluster.secret=shared-secret (required; authenticates packets)
+ * </pre>
+ * Every packet carries an HMAC over its send time and a per-sender
+ * sequence number; packets older than {@value #MAX_PACKET_AGE_MS} ms or
+ * already seen are dropped, so captured packets can't be replayed.
+ * Several nodes can run on one machine by giving each its own port.
+ * Node clocks are assumed to be NTP-synchronised to well under a minute.
+ */
+public class ClusterNode {
+
+    private static final short MAGIC = 0x5D15;
+    private static final byte PROTOCOL_VERSION = 2;
+    private static final byte MSG_COUNTERS = 1;
+    private static final byte MSG_BLOCK_EVENT = 2;
+    private static final byte MSG_UNLOCK = 3;
+    private static final byte MSG_RESYNC = 4;
+
+    private static final int MAX_PACKET_SIZE = 1400;
+    private static final int MAC_LENGTH = 16;
+    private static final long FLUSH_INTERVAL_MS = 250;
+    private static final int EVENT_RESENDS = 3;
+    private static final long INDEX_RESYNC_MINUTES = 10;
+    private static final long INDEX_RETRY_SECONDS = 30;
+    // Long enough for all copies of a resync request to arrive first
+    private static final long RESYNC_REQUEST_DELAY_MS = 1000;
+    private static final long EVENT_RETENTION_MS = 60 * 60 * 1000;
+    private static final long MAX_PACKET_AGE_MS = 30_000;
+
+    private static volatile ClusterNode instance;
+
+    private final String nodeId;
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private final byte[] secret;
+    private final FailureWindowTable local;
+
+    // Starts from the clock so a restarted node's numbers stay above the old ones
+    private final AtomicLong nextSequence = new AtomicLong(System.currentTimeMillis() << 20);
+
+    // Sender -> sequence numbers seen; only touched by the receiver thread
+    private final Map<String, ReplayWindow> replayWindows = new HashMap<>();
+
+    private final Map<String, FailureWindowTable> remote = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyKeys = ConcurrentHashMap.newKeySet();
+    // Each event goes out once per flush, EVENT_RESENDS flushes in a row
+    private final Queue<PendingEvent> outgoingEvents = new ConcurrentLinkedQueue<>();
+    private final Queue<PendingUnlock> outgoingUnlocks = new ConcurrentLinkedQueue<>();
+    private final Map<String, BlockEvent> lastEvents = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger resyncSendsLeft = new AtomicInteger();
+    private final AtomicBoolean resyncRequested = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    private ClusterNode(String nodeId, InetSocketAddress bind, List<InetSocketAddress> peers,
+                        byte[] secret, FailureWindowTable local) throws SocketException {
+        this.nodeId = nodeId;
+        this.socket = new DatagramSocket(bind);
+        this.peers = peers;
+        this.secret = secret;
+        this.local = local;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sidrs-cluster-gossip");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // =============================
+    // Lifecycle
+    // =============================
+
+    /**
+     * Start the node described by the sidrs.cluster.* system properties.
+     *
+     * @return the running node, or null if clustering is not configured
+     */
+    public static synchronized ClusterNode startFromSystemProperties() {
+        String peerList = System.getProperty("sidrs.cluster.peers", "").trim();
+        if (peerList.isEmpty()) {
+            return null;
+        }
+
+        int port = Integer.getInteger("sidrs.cluster.port", 7700);
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (String peer : peerList.split(",")) {
+            String[] hostPort = peer.trim().split(":");
+            peers.add(new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1])));
+        }
+
+        String nodeId = System.getProperty("sidrs.cluster.nodeId");
+        if (nodeId == null) {
+            try {
+                nodeId = java.net.InetAddress.getLocalHost().getHostName() + ":" + port;
+            } catch (IOException e) {
+                nodeId = "node:" + port;
+            }
+        }
+
+        String secret = System.getProperty("sidrs.cluster.secret", "");
+        InetSocketAddress bind = new InetSocketAddress(System.getProperty("sidrs.cluster.bind", "127.0.0.1"), port);
+        return start(nodeId, bind, peers, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param secret shared by all nodes; clustering refuses to start without one
+     */
+    public static synchronized ClusterNode start(String nodeId, InetSocketAddress bind,
+                                                 List<InetSocketAddress> peers, byte[] secret) {
+        if (instance != null) {
+            return instance;
+        }
+        if (secret == null || secret.length == 0) {
+            System.err.println("❌ Clustering not started: set sidrs.cluster.secret on every node");
+            return null;
+        }
+        try {
+            ClusterNode node = new ClusterNode(nodeId, bind, peers, secret, FailureTracker.localWindows());
+            node.startThreads();
+            instance = node;
+            System.out.println("🌐 Cluster node " + nodeId + " listening on UDP " +
+                    bind.getHostString() + ":" + bind.getPort() + ", peers " + peers);
+            return node;
+        } catch (SocketException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * The running node, or null when clustering is off
+     */
+    public static ClusterNode get() {
+        return instance;
+    }
+
+    public synchronized void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        socket.close();
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    private void startThreads() {
+        Thread receiver = new Thread(this::receiveLoop, "sidrs-cluster-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+
+        scheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::resync, INDEX_RESYNC_MINUTES, INDEX_RESYNC_MINUTES,
+                TimeUnit.MINUTES);
+    }
+
+    /**
+     * Anti-entropy: reload the block index from the shared table and forget
+     * event history old enough that no delayed packet can still reorder it.
+     * A failed reload is retried soon; until then IPBlocker falls back to
+     * the database.
+     */
+    private void resync() {
+        try {
+            if (BlockIndex.rebuild() < 0) {
+                scheduler.schedule(() -> {
+                    if (!BlockIndex.isCurrent()) {
+                        resync();
+                    }
+                }, INDEX_RETRY_SECONDS, TimeUnit.SECONDS);
+            }
+            long cutoff = System.currentTimeMillis() - EVENT_RETENTION_MS;
+            lastEvents.values().removeIf(event -> event.timestamp < cutoff);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // =============================
+    // Counters
+    // =============================
+
+    /**
+     * Queue the key's local counts to be sent with the next flush
+     */
+    public void markDirty(long hash) {
+        dirtyKeys.add(hash);
+    }
+
+    /**
+     * Sum of all other nodes' counts for the key over the window
+     */
+    public int remoteSum(long hash, int nowMinute, int windowMinutes) {
+        int total = 0;
+        for (FailureWindowTable table : remote.values()) {
+            total += table.sum(hash, nowMinute, windowMinutes);
+        }
+        return total;
+    }
+
+    /**
+     * Drop the key from this node's copies of the other nodes' counts
+     */
+    public void resetRemote(long hash) {
+        for (FailureWindowTable table : remote.values()) {
+            table.reset(hash);
+        }
+    }
+
+    /**
+     * Tell the other nodes an account was unlocked, so they release their
+     * lock and forget its failures too. Sent in a few consecutive flushes,
+     * which also clears counts that were already in flight.
+     */
+    public void publishUnlock(String username) {
+        outgoingUnlocks.add(new PendingUnlock(username, EVENT_RESENDS));
+    }
+
+    /**
+     * Ask the other nodes to rebuild their BlockIndex from blocked_ips now,
+     * for bulk changes (e.g. a feed import) too large to send as events
+     */
+    public void requestResync() {
+        resyncSendsLeft.set(EVENT_RESENDS);
+    }
+
+    public String getNodeId() { return nodeId; }
+
+    public Set<String> getKnownNodes() {
+        return Collections.unmodifiableSet(remote.keySet());
+    }
+
+    // =============================
+    // Block events
+    // =============================
+
+    public void publishBlock(String ipOrCidr, long expiresAt) {
+        publish(new BlockEvent(ipOrCidr, true, expiresAt, System.currentTimeMillis(), nodeId));
+    }
+
+    public void publishUnblock(String ipOrCidr) {
+        publish(new BlockEvent(ipOrCidr, false, 0, System.currentTimeMillis(), nodeId));
+    }
+
+    private void publish(BlockEvent event) {
+        lastEvents.put(event.address, event);
+        outgoingEvents.add(new PendingEvent(event, EVENT_RESENDS));
+    }
+
+    private void apply(BlockEvent event) {
+        BlockEvent previous = lastEvents.get(event.address);
+        if (previous != null && !event.isNewerThan(previous)) {
+            return;
+        }
+        lastEvents.put(event.address, event);
+
+        if (event.blocked) {
+            BlockIndex.add(event.address, event.expiresAt);
+        } else {
+            BlockIndex.remove(event.address);
+        }
+    }
+
+    // =============================
+    // Sending
+    // =============================
+
+    private void flush() {
+        try {
+            flushCounters();
+            flushEvents();
+            flushUnlocks();
+            flushResync();
+        } catch (Exception e) {
+            // Keep the schedule alive; the next flush retries
+            e.printStackTrace();
+        }
+    }
+
+    private void flushCounters() throws IOException {
+        if (dirtyKeys.isEmpty()) return;
+
+        int nowMinute = FailureWindowTable.currentMinute();
+        int[] minutes = new int[FailureWindowTable.SLOTS];
+        int[] counts = new int[FailureWindowTable.SLOTS];
+        PacketWriter packet = new PacketWriter(MSG_COUNTERS);
+
+        Iterator<Long> it = dirtyKeys.iterator();
+        while (it.hasNext()) {
+            long hash = it.next();
+            it.remove();
+
+            int n = local.liveSlots(hash, nowMinute, minutes, counts);
+            if (n == 0) continue;
+
+            if (!packet.hasRoom(8 + 1 + n * 8)) {
+                send(packet.finish());
+                packet = new PacketWriter(MSG_COUNTERS);
+            }
+            packet.out.writeLong(hash);
+            packet.out.writeByte(n);
+            for (int i = 0; i < n; i++) {
+                packet.out.writeInt(minutes[i]);
+                packet.out.writeInt(counts[i]);
+            }
+            packet.entries++;
+        }
+        if (packet.entries > 0) {
+            send(packet.finish());
+        }
+    }
+
+    private void flushEvents() throws IOException {
+        if (outgoingEvents.isEmpty()) return;
+
+        // One copy per flush, so losing a datagram loses only that copy
+        List<PendingEvent> again = new ArrayList<>();
+        PacketWriter packet = new PacketWriter(MSG_BLOCK_EVENT);
+        PendingEvent pending;
+        while ((pending = outgoingEvents.poll()) != null) {
+            BlockEvent event = pending.event;
+            if (lastEvents.get(event.address) != event) {
+                // Superseded by a newer event for the same address
+                continue;
+            }
+            if (pending.sendsLeft > 1) {
+                again.add(new PendingEvent(event, pending.sendsLeft - 1));
+            }
+            byte[] address = event.address.getBytes(StandardCharsets.UTF_8);
+            if (!packet.hasRoom(2 + address.length + 1 + 8 + 8)) {
+                send(packet.finish());
+                packet = new PacketWriter(MSG_BLOCK_EVENT);
+            }
+            packet.out.writeShort(address.length);
+            packet.out.write(address);
+            packet.out.writeBoolean(event.blocked);
+            packet.out.writeLong(event.expiresAt);
+            packet.out.writeLong(event.timestamp);
+            packet.entries++;
+        }
+        if (packet.entries > 0) {
+            send(packet.finish());
+        }
+        outgoingEvents.addAll(again);
+    }
+
+    private void flushResync() throws IOException {
+        if (resyncSendsLeft.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+            send(new PacketWriter(MSG_RESYNC).finish());
+        }
+    }
+
+    private void flushUnlocks() throws IOException {
+        if (outgoingUnlocks.isEmpty()) return;
+
+        List<PendingUnlock> again = new ArrayList<>();
+        PacketWriter packet = new PacketWriter(MSG_UNLOCK);
+        PendingUnlock pending;
+        while ((pending = outgoingUnlocks.poll()) != null) {
+            if (pending.sendsLeft > 1) {
+                again.add(new PendingUnlock(pending.username, pending.sendsLeft - 1));
+            }
+            byte[] username = pending.username.getBytes(StandardCharsets.UTF_8);
+            if (!packet.hasRoom(2 + username.length)) {
+                send(packet.finish());
+                packet = new PacketWriter(MSG_UNLOCK);
+            }
+            packet.out.writeShort(username.length);
+            packet.out.write(username);
+            packet.entries++;
+        }
+        if (packet.entries > 0) {
+            send(packet.finish());
+        }
+        outgoingUnlocks.addAll(again);
+    }
+
+    private void send(byte[] payload) throws IOException {
+        byte[] data = sign(payload);
+        for (InetSocketAddress peer : peers) {
+            socket.send(new DatagramPacket(data, data.length, peer));
+        }
+    }
+
+    // =============================
+    // Receiving
+    // =============================
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[MAX_PACKET_SIZE + MAC_LENGTH];
+        while (running) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+                handle(packet.getData(), packet.getLength());
+            } catch (IOException e) {
+                if (running) e.printStackTrace();
+            } catch (RuntimeException e) {
+                // Malformed packet; drop it and keep listening
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void handle(byte[] data, int length) throws IOException {
+        int payloadLength = verify(data, length);
+        if (payloadLength < 0) return;
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, payloadLength));
+        if (in.readShort() != MAGIC || in.readByte() != PROTOCOL_VERSION) return;
+
+        byte type = in.readByte();
+        String sender = in.readUTF();
+        if (sender.equals(nodeId)) return;
+        long sentAt = in.readLong();
+        long sequence = in.readLong();
+        int entries = in.readUnsignedShort();
+
+        // Authentic but stale or already seen: a replay
+        if (Math.abs(System.currentTimeMillis() - sentAt) > MAX_PACKET_AGE_MS) return;
+        if (!replayWindows.computeIfAbsent(sender, id -> new ReplayWindow()).accept(sequence)) return;
+
+        if (type == MSG_COUNTERS) {
+            FailureWindowTable table = remote.computeIfAbsent(sender, id -> new FailureWindowTable());
+            for (int e = 0; e < entries; e++) {
+                long hash = in.readLong();
+                int n = in.readUnsignedByte();
+                for (int i = 0; i < n; i++) {
+                    table.mergeMax(hash, in.readInt(), in.readInt());
+                }
+            }
+        } else if (type == MSG_BLOCK_EVENT) {
+            for (int e = 0; e < entries; e++) {
+                byte[] address = new byte[in.readUnsignedShort()];
+                in.readFully(address);
+                boolean blocked = in.readBoolean();
+                long expiresAt = in.readLong();
+                long timestamp = in.readLong();
+                apply(new BlockEvent(new String(address, StandardCharsets.UTF_8),
+                        blocked, expiresAt, timestamp, sender));
+            }
+        } else if (type == MSG_UNLOCK) {
+            for (int e = 0; e < entries; e++) {
+                byte[] username = new byte[in.readUnsignedShort()];
+                in.readFully(username);
+                AccountLockout.unlockFromPeer(new String(username, StandardCharsets.UTF_8));
+            }
+        } else if (type == MSG_RESYNC) {
+            // One rebuild for all copies of the request
+            if (resyncRequested.compareAndSet(false, true)) {
+                scheduler.schedule(() -> {
+                    resyncRequested.set(false);
+                    resync();
+                }, RESYNC_REQUEST_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // =============================
+    // Packet authentication
+    // =============================
+
+    private byte[] sign(byte[] payload) {
+        byte[] signed = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(mac(payload, payload.length), 0, signed, payload.length, MAC_LENGTH);
+        return signed;
+    }
+
+    /**
+     * @return payload length if the packet is authentic, otherwise -1
+     */
+    private int verify(byte[] data, int length) {
+        int payloadLength = length - MAC_LENGTH;
+        if (payloadLength <= 0) return -1;
+
+        byte[] expected = Arrays.copyOf(mac(data, payloadLength), MAC_LENGTH);
+        byte[] actual = Arrays.copyOfRange(data, payloadLength, length);
+        return MessageDigest.isEqual(expected, actual) ? payloadLength : -1;
+    }
+
+    private byte[] mac(byte[] data, int length) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            mac.update(data, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    private class PacketWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(MAX_PACKET_SIZE);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int entries;
+
+        PacketWriter(byte type) throws IOException {
+            out.writeShort(MAGIC);
+            out.writeByte(PROTOCOL_VERSION);
+            out.writeByte(type);
+            out.writeUTF(nodeId);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(nextSequence.incrementAndGet());
+            out.writeShort(0); // entry count, patched in finish()
+        }
+
+        boolean hasRoom(int entrySize) {
+            return bytes.size() + entrySize <= MAX_PACKET_SIZE && entries < 0xFFFF;
+        }
+
+        byte[] finish() {
+            byte[] data = bytes.toByteArray();
+            int countOffset = 2 + 1 + 1 + 2 + nodeId.getBytes(StandardCharsets.UTF_8).length + 8 + 8;
+            data[countOffset] = (byte) (entries >>> 8);
+            data[countOffset + 1] = (byte) entries;
+            return data;
+        }
+    }
+
+    /**
+     * Sliding window over one sender's sequence numbers: accepts each number
+     * once, tolerating packets reordered by up to 64 positions
+     */
+    private static class ReplayWindow {
+        private long highest = -1;
+        private long seen;   // bit i set = highest - i was accepted
+
+        boolean accept(long sequence) {
+            if (sequence > highest) {
+                long shift = highest < 0 ? 64 : sequence - highest;
+                seen = shift >= 64 ? 1 : (seen << shift) | 1;
+                highest = sequence;
+                return true;
+            }
+            long offset = highest - sequence;
+            if (offset >= 64) return false;
+            long bit = 1L << offset;
+            if ((seen & bit) != 0) return false;
+            seen |= bit;
+            return true;
+        }
+    }
+
+    private static class BlockEvent {
+        final String address;
+        final boolean blocked;
+        final long expiresAt;
+        final long timestamp;
+        final String origin;
+
+        BlockEvent(String address, boolean blocked, long expiresAt, long timestamp, String origin) {
+            this.address = address;
+            this.blocked = blocked;
+            this.expiresAt = expiresAt;
+            this.timestamp = timestamp;
+            this.origin = origin;
+        }
+
+        boolean isNewerThan(BlockEvent other) {
+            if (timestamp != other.timestamp) return timestamp > other.timestamp;
+            return origin.compareTo(other.origin) > 0;
+        }
+    }
+
+    private static class PendingEvent {
+        final BlockEvent event;
+        final int sendsLeft;
+
+        PendingEvent(BlockEvent event, int sendsLeft) {
+            this.event = event;
+            this.sendsLeft = sendsLeft;
+        }
+    }
+
+    private static class PendingUnlock {
+        final String username;
+        final int sendsLeft;
+
+        PendingUnlock(String username, int sendsLeft) {
+            this.username = username;
+            this.sendsLeft = sendsLeft;
+        }
+    }
+}
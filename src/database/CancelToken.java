@@ -0,0 +1,42 @@
+package database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Cancel Token - Lets another thread abort a running query.
+ * Cancelling sets a flag checked between rows and asks the server to
+ * stop the statement currently executing.
+ */
+public class CancelToken {
+
+    private volatile boolean cancelled;
+    private volatile Statement statement;
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Statement stmt = statement;
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                // Statement already finished or closed
+            }
+        }
+    }
+
+    void attach(Statement stmt) throws SQLException {
+        statement = stmt;
+        if (cancelled) {
+            stmt.cancel();
+        }
+    }
+
+    void detach() {
+        statement = null;
+    }
+}
@@ -1,29 +1,264 @@
 package database;
 
 import model.user;
+import model.BlockedIP;
+import model.LoginAttempt;
+import model.SearchFilter;
+import model.TrustedNetwork;
+
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DatabaseManager {
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/sidrs_db";
+    private static final String DEFAULT_DB_URL = "jdbc:mysql://localhost:3306/sidrs_db";
+
+    // -Dsidrs.db.url points tools such as the attack simulator at another database
+    private static final String DB_BASE_URL = System.getProperty("sidrs.db.url", DEFAULT_DB_URL);
+
+    // Batches go out as multi-row statements; statements are prepared on the
+    // server and the driver keeps the ones closed by try-with-resources for
+    // reuse; autocommit and isolation changes skip the round trip when
+    // nothing changes
+    private static final String DB_URL = DB_BASE_URL + (DB_BASE_URL.contains("?") ? "&" : "?") +
+            "rewriteBatchedStatements=true" +
+            "&useServerPrepStmts=true&cachePrepStmts=true" +
+            "&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048" +
+            "&cacheResultSetMetadata=true&useLocalSessionState=true";
     private static final String DB_USER = "root";      // MySQL username
     private static final String DB_PASSWORD = "12345"; // MySQL password
 
-    private static Connection connection;
+    // One connection per thread, so background loaders can query in parallel
+    // instead of queueing up behind a single shared connection
+    private static final ThreadLocal<Connection> connection = new ThreadLocal<>();
+
+    // Statements of the hot detection queries, kept open on that connection
+    private static final ThreadLocal<StatementCache> statementCache = new ThreadLocal<>();
+
+    // Connections opened ahead of time; a thread without one takes a spare
+    // instead of paying for the TCP and auth handshake itself
+    private static final Queue<Connection> spareConnections = new ConcurrentLinkedQueue<>();
+
+    // Who holds which connection and statement cache, so those of threads
+    // that have exited (finished pools, idle SwingWorker threads) are
+    // reclaimed instead of staying open on the server
+    private static final Map<Thread, Connection> connectionOwners = new ConcurrentHashMap<>();
+    private static final Map<Thread, StatementCache> cacheOwners = new ConcurrentHashMap<>();
+    private static final int MAX_SPARE_CONNECTIONS = 8;
+    private static final long RECLAIM_INTERVAL_SECONDS = 30;
+
+    private static final ScheduledExecutorService reclaimer =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "sidrs-db-reclaim");
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        reclaimer.scheduleWithFixedDelay(DatabaseManager::reclaimConnections,
+                RECLAIM_INTERVAL_SECONDS, RECLAIM_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Bumped on every write made through this class
+    private static final AtomicLong changeVersion = new AtomicLong();
+
+    // Keys per IN (...) list in batched statements
+    private static final int MAX_IN_LIST = 1000;
 
     // ===============================
     // Get Connection
     // ===============================
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        Connection conn = connection.get();
+        if (conn == null || conn.isClosed()) {
+            conn = spareConnections.poll();
+            if (conn == null || conn.isClosed()) {
+                conn = openConnection();
+            }
+            connection.set(conn);
+            connectionOwners.put(Thread.currentThread(), conn);
+        }
+        return conn;
+    }
+
+    /**
+     * Take back the connections and cached statements of threads that have
+     * exited. Healthy connections become spares, up to a few; the rest are
+     * closed.
+     */
+    private static void reclaimConnections() {
+        try {
+            for (Thread owner : connectionOwners.keySet()) {
+                if (owner.isAlive()) continue;
+
+                // Safe from this thread: the cache's owner is gone
+                StatementCache cache = cacheOwners.remove(owner);
+                if (cache != null) {
+                    cache.closeAll();
+                }
+                Connection conn = connectionOwners.remove(owner);
+                if (conn != null) {
+                    recycle(conn);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void recycle(Connection conn) {
+        try {
+            if (conn.isClosed()) return;
+            if (spareConnections.size() < MAX_SPARE_CONNECTIONS && conn.isValid(2)) {
+                // Leave nothing of the old owner behind: open transaction, named locks
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DO RELEASE_ALL_LOCKS()");
+                }
+                spareConnections.add(conn);
+            } else {
+                conn.close();
+            }
+        } catch (SQLException e) {
             try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("MySQL Driver not found");
+                conn.close();
+            } catch (SQLException ignored) {
+                // Already broken
             }
         }
-        return connection;
+    }
+
+    private static Connection openConnection() throws SQLException {
+        return openConnection(DB_URL);
+    }
+
+    /**
+     * True unless -Dsidrs.db.url names a different database
+     */
+    public static boolean usesDefaultDatabase() {
+        return DB_BASE_URL.equals(DEFAULT_DB_URL);
+    }
+
+    public static String getDatabaseUrl() {
+        return DB_BASE_URL;
+    }
+
+    /**
+     * A connection without the driver tuning above, for comparing against
+     */
+    static Connection openPlainConnection() throws SQLException {
+        return openConnection(DB_BASE_URL);
+    }
+
+    private static Connection openConnection(String url) throws SQLException {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            return DriverManager.getConnection(url, DB_USER, DB_PASSWORD);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL Driver not found");
+        }
+    }
+
+    // ===============================
+    // Cached Statements
+    // ===============================
+    // The hot queries below (validateUser, recordLoginAttempt, isIPBlocked,
+    // getFailedAttemptsCount) go through these; their SQL is package-private
+    // so QueryBenchmark runs exactly the same statements.
+    /**
+     * This thread's open statement for a hot query. Don't close it; close
+     * its result sets.
+     */
+    private static PreparedStatement cached(String sql) throws SQLException {
+        Connection conn = getConnection();
+        StatementCache cache = statementCache.get();
+        if (cache == null || !cache.isFor(conn)) {
+            // First query on this thread, or its connection was replaced
+            if (cache != null) {
+                cache.closeAll();
+            }
+            cache = new StatementCache(conn);
+            statementCache.set(cache);
+            cacheOwners.put(Thread.currentThread(), cache);
+        }
+        return cache.get(sql);
+    }
+
+    private static void discardCached(String sql) {
+        StatementCache cache = statementCache.get();
+        if (cache != null) {
+            cache.discard(sql);
+        }
+    }
+
+    // ===============================
+    // Pre-warm Connections
+    // ===============================
+    /**
+     * Open spare connections in the background so the first queries on
+     * new worker threads don't wait for a handshake.
+     */
+    public static void prewarm(int count) {
+        for (int i = 0; i < count; i++) {
+            try {
+                spareConnections.add(openConnection());
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return;
+            }
+        }
+    }
+
+    // ===============================
+    // Change Version
+    // ===============================
+    /**
+     * Monotonic counter of writes made through this class.
+     * Readers can compare it against a cached value to skip refetching.
+     */
+    public static long getChangeVersion() {
+        return changeVersion.get();
+    }
+
+    private static void markChanged() {
+        changeVersion.incrementAndGet();
+    }
+
+    /**
+     * Fingerprint of the dashboard tables as the database sees them, so
+     * writes by other nodes and processes are noticed too. Cheap: the newest
+     * attempt id comes off the primary key and blocked_ips is small.
+     *
+     * @return an opaque value that changes when the data does, or null on error
+     */
+    public static String getDataVersion() {
+
+        String sql = "SELECT " +
+                "(SELECT COALESCE(MAX(id), 0) FROM login_attempts), " +
+                "(SELECT CONCAT(COUNT(*), '/', COALESCE(SUM(is_permanent), 0), '/', " +
+                "COALESCE(MAX(blocked_time), '')) FROM blocked_ips)";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) + "/" + rs.getString(2) : null;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
     }
 
     // ===============================
@@ -38,29 +273,63 @@ public class DatabaseManager {
         }
     }
 
+    // ===============================
+    // Named Locks
+    // ===============================
+    /**
+     * Take a MySQL named lock on this thread's connection, so only one
+     * node runs a maintenance job at a time.
+     *
+     * @return true if the lock was acquired within the timeout
+     */
+    public static boolean acquireLock(String name, int timeoutSeconds) {
+        try (PreparedStatement stmt = getConnection().prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, name);
+            stmt.setInt(2, timeoutSeconds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public static void releaseLock(String name) {
+        try (PreparedStatement stmt = getConnection().prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, name);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
     // ===============================
     // Validate User Login
     // ===============================
-    public static User validateUser(String username, String password) {
+    static final String VALIDATE_USER_SQL =
+            "SELECT id, username, role FROM users WHERE username=? AND password=? AND status='ACTIVE'";
 
-        String sql = "SELECT * FROM users WHERE username=? AND password=? AND status='ACTIVE'";
+    public static User validateUser(String username, String password) {
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try {
+            PreparedStatement stmt = cached(VALIDATE_USER_SQL);
 
             stmt.setString(1, username);  // FIXED
             stmt.setString(2, password);  // FIXED
 
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                User user = new User();
-                user.setId(rs.getInt("id"));
-                user.setUsername(rs.getString("username"));
-                user.setRole(rs.getString("role"));
-                return user;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    User user = new User();
+                    user.setId(rs.getInt("id"));
+                    user.setUsername(rs.getString("username"));
+                    user.setRole(rs.getString("role"));
+                    return user;
+                }
             }
 
         } catch (SQLException e) {
+            discardCached(VALIDATE_USER_SQL);
             e.printStackTrace();
         }
 
@@ -73,17 +342,29 @@ public class DatabaseManager {
     public static void recordLoginAttempt(String username,
                                           String ipAddress,
                                           String status) {
+        recordLoginAttempt(username, ipAddress, status, null);
+    }
 
-        String sql = "INSERT INTO login_attempts (username, ip_address, status) VALUES (?, ?, ?)";
+    static final String RECORD_ATTEMPT_SQL =
+            "INSERT INTO login_attempts (username, ip_address, status, user_agent) VALUES (?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+    public static void recordLoginAttempt(String username,
+                                          String ipAddress,
+                                          String status,
+                                          String userAgent) {
+
+        try {
+            PreparedStatement stmt = cached(RECORD_ATTEMPT_SQL);
 
             stmt.setString(1, username);
             stmt.setString(2, ipAddress);
             stmt.setString(3, status);
+            stmt.setString(4, userAgent);
             stmt.executeUpdate();
+            markChanged();
 
         } catch (SQLException e) {
+            discardCached(RECORD_ATTEMPT_SQL);
             e.printStackTrace();
         }
     }
@@ -91,18 +372,21 @@ public class DatabaseManager {
     // ===============================
     // Check if IP is Blocked
     // ===============================
-    public static boolean isIPBlocked(String ipAddress) {
+    static final String IS_BLOCKED_SQL = "SELECT 1 FROM blocked_ips " +
+            "WHERE ip_address=? AND (is_permanent=TRUE OR expiry_time > NOW())";
 
-        String sql = "SELECT 1 FROM blocked_ips " +
-                "WHERE ip_address=? AND (is_permanent=TRUE OR expiry_time > NOW())";
+    public static boolean isIPBlocked(String ipAddress) {
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try {
+            PreparedStatement stmt = cached(IS_BLOCKED_SQL);
 
             stmt.setString(1, ipAddress);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next();
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
 
         } catch (SQLException e) {
+            discardCached(IS_BLOCKED_SQL);
             e.printStackTrace();
         }
 
@@ -112,15 +396,24 @@ public class DatabaseManager {
     // ===============================
     // Block IP
     // ===============================
+    // Re-blocking an existing row refreshes it instead of failing on uk_blocked_ip
+    private static final String BLOCK_UPSERT_UPDATE =
+            " ON DUPLICATE KEY UPDATE reason=VALUES(reason), blocked_time=NOW(), " +
+            "expiry_time=IF(VALUES(expiry_time) IS NULL, expiry_time, " +
+            "GREATEST(COALESCE(expiry_time, VALUES(expiry_time)), VALUES(expiry_time))), " +
+            "block_count=block_count+1";
+
     public static boolean blockIP(String ipAddress, String reason) {
 
-        String sql = "INSERT INTO blocked_ips (ip_address, reason) VALUES (?, ?)";
+        String sql = "INSERT INTO blocked_ips (ip_address, reason) VALUES (?, ?)" +
+                " ON DUPLICATE KEY UPDATE reason=VALUES(reason), blocked_time=NOW(), block_count=block_count+1";
 
         try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
 
             stmt.setString(1, ipAddress);
             stmt.setString(2, reason);
             stmt.executeUpdate();
+            markChanged();
             return true;
 
         } catch (SQLException e) {
@@ -129,24 +422,808 @@ public class DatabaseManager {
         }
     }
 
+    public static boolean blockIP(String ipAddress, String reason, int durationMinutes) {
+
+        String sql = "INSERT INTO blocked_ips (ip_address, reason, expiry_time) " +
+                "VALUES (?, ?, NOW() + INTERVAL ? MINUTE)" + BLOCK_UPSERT_UPDATE;
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setString(1, ipAddress);
+            stmt.setString(2, reason);
+            stmt.setInt(3, durationMinutes);
+            stmt.executeUpdate();
+            markChanged();
+            return true;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ===============================
+    // Bulk Upsert Blocked IPs
+    // ===============================
+    /**
+     * Insert or refresh many blocks in one transaction. With
+     * rewriteBatchedStatements the batch goes to the server as a single
+     * multi-row INSERT ... ON DUPLICATE KEY UPDATE.
+     *
+     * @return number of rows sent, or -1 on failure (the batch is rolled back)
+     */
+    public static int upsertBlockedIPs(List<BlockedIP> batch) {
+
+        if (batch.isEmpty()) return 0;
+
+        String sql = "INSERT INTO blocked_ips (ip_address, reason, expiry_time, is_permanent) " +
+                "VALUES (?, ?, ?, ?)" + BLOCK_UPSERT_UPDATE +
+                ", is_permanent=is_permanent OR VALUES(is_permanent)";
+
+        try {
+            Connection conn = getConnection();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (BlockedIP blocked : batch) {
+                    stmt.setString(1, blocked.getIpAddress());
+                    stmt.setString(2, blocked.getReason());
+                    stmt.setTimestamp(3, blocked.getExpiryTime());
+                    stmt.setBoolean(4, blocked.isPermanent());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                markChanged();
+                return batch.size();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     // ===============================
     // Count Failed Attempts
     // ===============================
+    static final String FAILED_COUNT_SQL = "SELECT COUNT(*) FROM login_attempts " +
+            "WHERE ip_address=? AND status='FAILED' " +
+            "AND attempt_time >= NOW() - INTERVAL ? MINUTE";
+
     public static int getFailedAttemptsCount(String ipAddress, int minutes) {
 
-        String sql = "SELECT COUNT(*) FROM login_attempts " +
-                "WHERE ip_address=? AND status='FAILED' " +
-                "AND attempt_time >= NOW() - INTERVAL ? MINUTE";
+        try {
+            PreparedStatement stmt = cached(FAILED_COUNT_SQL);
+
+            stmt.setString(1, ipAddress);
+            stmt.setInt(2, minutes);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            discardCached(FAILED_COUNT_SQL);
+            e.printStackTrace();
+        }
+
+        return 0;
+    }
+
+    // ===============================
+    // Record and Count in One Call
+    // ===============================
+    private static final String RECORD_ATTEMPT_AND_COUNT_SQL = "CALL sidrs_record_attempt(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Check the block, record the attempt, count the IP's failures in the
+     * window and block it at the threshold, all in one round trip (the
+     * sidrs_record_attempt procedure, migrations 7 and 9). A blocked IP's attempt
+     * is recorded as BLOCKED and not counted.
+     *
+     * @return {1 if the IP was already blocked else 0, failures in the window
+     * including this one (0 for successes)}, or null on error
+     */
+    public static int[] recordAttemptAndCount(String username, String ipAddress, boolean success,
+                                              String userAgent, int windowMinutes, int maxFailed,
+                                              int blockMinutes, String reason) {
+
+        try {
+            PreparedStatement stmt = cached(RECORD_ATTEMPT_AND_COUNT_SQL);
+
+            stmt.setString(1, username);
+            stmt.setString(2, ipAddress);
+            stmt.setBoolean(3, success);
+            stmt.setString(4, userAgent);
+            stmt.setInt(5, windowMinutes);
+            stmt.setInt(6, maxFailed);
+            stmt.setInt(7, blockMinutes);
+            stmt.setString(8, reason);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    markChanged();
+                    return new int[]{rs.getInt(1), rs.getInt(2)};
+                }
+            }
+
+        } catch (SQLException e) {
+            discardCached(RECORD_ATTEMPT_AND_COUNT_SQL);
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    // ===============================
+    // Unblock IP
+    // ===============================
+    public static boolean unblockIP(String ipAddress) {
+
+        String sql = "DELETE FROM blocked_ips WHERE ip_address=?";
 
         try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
 
             stmt.setString(1, ipAddress);
-            stmt.setInt(2, minutes);
+            boolean removed = stmt.executeUpdate() > 0;
+            markChanged();
+            return removed;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ===============================
+    // Unblock IPs (batched)
+    // ===============================
+    /**
+     * @return rows removed, or -1 on error (nothing is removed then)
+     */
+    public static int unblockIPs(List<String> ipAddresses) {
+        return updateByKeys("DELETE FROM blocked_ips WHERE ip_address IN ", null, ipAddresses);
+    }
+
+    // ===============================
+    // Set Permanent Block
+    // ===============================
+    public static boolean setIPPermanentBlock(String ipAddress, boolean permanent) {
+
+        String sql = "UPDATE blocked_ips SET is_permanent=? WHERE ip_address=?";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setBoolean(1, permanent);
+            stmt.setString(2, ipAddress);
+            boolean updated = stmt.executeUpdate() > 0;
+            markChanged();
+            return updated;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ===============================
+    // Set Permanent Blocks (batched)
+    // ===============================
+    /**
+     * @return rows updated, or -1 on error (nothing is updated then)
+     */
+    public static int setIPPermanentBlocks(List<String> ipAddresses, boolean permanent) {
+        return updateByKeys("UPDATE blocked_ips SET is_permanent=? WHERE ip_address IN ", permanent, ipAddresses);
+    }
+
+    // ===============================
+    // Update User Status
+    // ===============================
+    public static boolean updateUserStatus(int userId, String status) {
+
+        String sql = "UPDATE users SET status=? WHERE id=?";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setString(1, status);
+            stmt.setInt(2, userId);
+            boolean updated = stmt.executeUpdate() > 0;
+            markChanged();
+            return updated;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ===============================
+    // Update User Statuses (batched)
+    // ===============================
+    /**
+     * @return rows updated, or -1 on error (nothing is updated then)
+     */
+    public static int updateUserStatuses(List<Integer> userIds, String status) {
+        return updateByKeys("UPDATE users SET status=? WHERE id IN ", status, userIds);
+    }
+
+    // ===============================
+    // Apply Lockout Status (batched)
+    // ===============================
+    /**
+     * Write automatic lock/unlock decisions in one transaction.
+     * Locks only apply to ACTIVE users and unlocks only to AUTO_LOCKED
+     * ones, so suspended and admin-locked accounts are never touched.
+     * Locks store their expiry in locked_until, so they are released even
+     * if the node that set them is gone (see releaseExpiredLockouts).
+     *
+     * @param changes username -> "AUTO_LOCKED" or "ACTIVE"
+     */
+    public static boolean applyLockoutStatus(Map<String, String> changes, int lockMinutes) {
+
+        if (changes.isEmpty()) return true;
+
+        // Only undo our own locks; LOCKED belongs to the admin
+        String lockSql = "UPDATE users SET status='AUTO_LOCKED', locked_until=NOW() + INTERVAL ? MINUTE " +
+                "WHERE username=? AND status='ACTIVE'";
+        String unlockSql = "UPDATE users SET status='ACTIVE', locked_until=NULL " +
+                "WHERE username=? AND status='AUTO_LOCKED'";
+
+        try {
+            Connection conn = getConnection();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement lock = conn.prepareStatement(lockSql);
+                 PreparedStatement unlock = conn.prepareStatement(unlockSql)) {
+
+                for (Map.Entry<String, String> change : changes.entrySet()) {
+                    if ("AUTO_LOCKED".equals(change.getValue())) {
+                        lock.setInt(1, lockMinutes);
+                        lock.setString(2, change.getKey());
+                        lock.addBatch();
+                    } else {
+                        unlock.setString(1, change.getKey());
+                        unlock.addBatch();
+                    }
+                }
+                lock.executeBatch();
+                unlock.executeBatch();
+                conn.commit();
+                markChanged();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ===============================
+    // Release Expired Lockouts
+    // ===============================
+    /**
+     * Set AUTO_LOCKED users whose locked_until has passed back to ACTIVE,
+     * whichever node locked them. Rows locked before the column existed
+     * have no expiry and are released too.
+     *
+     * @return usernames released, or null on error
+     */
+    public static List<String> releaseExpiredLockouts() {
+
+        String expired = "status='AUTO_LOCKED' AND (locked_until IS NULL OR locked_until <= NOW())";
+        List<String> usernames = new ArrayList<>();
+
+        try (PreparedStatement select = getConnection()
+                .prepareStatement("SELECT username FROM users WHERE " + expired);
+             ResultSet rs = select.executeQuery()) {
+
+            while (rs.next()) {
+                usernames.add(rs.getString(1));
+            }
+            if (usernames.isEmpty()) return usernames;
+
+            // The condition again, in case another node relocked one meanwhile
+            try (PreparedStatement update = getConnection().prepareStatement(
+                    "UPDATE users SET status='ACTIVE', locked_until=NULL WHERE username=? AND " + expired)) {
+                for (String username : usernames) {
+                    update.setString(1, username);
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            markChanged();
+            return usernames;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ===============================
+    // Purge Login Attempts (batched)
+    // ===============================
+    /**
+     * Delete up to batchSize attempts older than the cutoff, oldest first.
+     * Callers loop until it returns less than batchSize.
+     *
+     * @return rows deleted, or -1 on error
+     */
+    public static int deleteLoginAttemptsBefore(Timestamp cutoff, int batchSize) {
 
-            ResultSet rs = stmt.executeQuery();
+        String sql = "DELETE FROM login_attempts WHERE attempt_time < ? " +
+                "ORDER BY attempt_time LIMIT ?";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, cutoff);
+            stmt.setInt(2, batchSize);
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                markChanged();
+            }
+            return deleted;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    // ===============================
+    // Run Markers (simulator cleanup)
+    // ===============================
+    /**
+     * The database clock, so a run's rows can be told apart by time
+     * without trusting this host's clock
+     *
+     * @return the current database time, or null on error
+     */
+    public static Timestamp getDatabaseTime() {
+        try (PreparedStatement stmt = getConnection().prepareStatement("SELECT NOW()");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getTimestamp(1) : null;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * @return the newest login attempt id, 0 if there are none, or -1 on error
+     */
+    public static long getMaxAttemptId() {
+        try (PreparedStatement stmt = getConnection()
+                .prepareStatement("SELECT COALESCE(MAX(id), 0) FROM login_attempts");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Delete up to batchSize attempts with an id above afterId. Callers loop
+     * until it returns less than batchSize.
+     *
+     * @return rows deleted, or -1 on error
+     */
+    public static int deleteLoginAttemptsAfter(long afterId, int batchSize) {
+
+        String sql = "DELETE FROM login_attempts WHERE id > ? LIMIT ?";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, batchSize);
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                markChanged();
+            }
+            return deleted;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Delete blocks created or renewed at or after since
+     *
+     * @return rows deleted, or -1 on error
+     */
+    public static int deleteBlocksSince(Timestamp since) {
+        return updateSince("DELETE FROM blocked_ips WHERE blocked_time >= ?", since);
+    }
+
+    /**
+     * Set users locked by detection at or after since back to ACTIVE.
+     * A lock's expiry is its start plus lockMinutes, which tells them apart
+     * from locks that were already held.
+     *
+     * @return rows updated, or -1 on error
+     */
+    public static int releaseLockoutsSince(Timestamp since, int lockMinutes) {
+        return updateSince("UPDATE users SET status='ACTIVE', locked_until=NULL " +
+                "WHERE status='AUTO_LOCKED' AND locked_until >= ?",
+                new Timestamp(since.getTime() + lockMinutes * 60_000L));
+    }
+
+    private static int updateSince(String sql, Timestamp since) {
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, since);
+            int changed = stmt.executeUpdate();
+            if (changed > 0) {
+                markChanged();
+            }
+            return changed;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    // ===============================
+    // Get All Users
+    // ===============================
+    public static List<User> getAllUsers() {
+
+        String sql = "SELECT id, username, role, status, created_at, last_login " +
+                "FROM users ORDER BY id";
+        List<User> users = new ArrayList<>();
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                User user = new User();
+                user.setId(rs.getInt("id"));
+                user.setUsername(rs.getString("username"));
+                user.setRole(rs.getString("role"));
+                user.setStatus(rs.getString("status"));
+                user.setCreatedAt(rs.getTimestamp("created_at"));
+                user.setLastLogin(rs.getTimestamp("last_login"));
+                users.add(user);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+
+    // ===============================
+    // Get Login Attempts
+    // ===============================
+    public static List<LoginAttempt> getAllLoginAttempts() {
+        return getRecentLoginAttempts(Integer.MAX_VALUE);
+    }
+
+    public static List<LoginAttempt> getRecentLoginAttempts(int limit) {
+
+        String sql = "SELECT id, username, ip_address, status, attempt_time, user_agent " +
+                "FROM login_attempts ORDER BY attempt_time DESC LIMIT ?";
+        List<LoginAttempt> attempts = new ArrayList<>();
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setInt(1, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    attempts.add(mapLoginAttempt(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return attempts;
+    }
+
+    // ===============================
+    // Get Blocked IPs
+    // ===============================
+    public static List<BlockedIP> getAllBlockedIPs() {
+
+        String sql = "SELECT id, ip_address, blocked_time, expiry_time, reason, block_count, is_permanent " +
+                "FROM blocked_ips ORDER BY blocked_time DESC";
+        List<BlockedIP> blockedIPs = new ArrayList<>();
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                blockedIPs.add(mapBlockedIP(rs));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return blockedIPs;
+    }
+
+    /**
+     * Current rows for the given addresses; missing ones are left out
+     */
+    public static List<BlockedIP> getBlockedIPs(List<String> ipAddresses) {
+
+        List<BlockedIP> blockedIPs = new ArrayList<>();
+
+        try {
+            Connection conn = getConnection();
+            for (int from = 0; from < ipAddresses.size(); from += MAX_IN_LIST) {
+                List<String> chunk = ipAddresses.subList(from, Math.min(ipAddresses.size(), from + MAX_IN_LIST));
+                String sql = "SELECT id, ip_address, blocked_time, expiry_time, reason, block_count, is_permanent " +
+                        "FROM blocked_ips WHERE ip_address IN (" + placeholders(chunk.size()) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            blockedIPs.add(mapBlockedIP(rs));
+                        }
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return blockedIPs;
+    }
+
+    /**
+     * Every blocked address matching the filter, without a row limit
+     *
+     * @return the addresses, or null on error
+     */
+    public static List<String> findBlockedIPAddresses(SearchFilter filter) {
+
+        StringBuilder sql = new StringBuilder("SELECT ip_address FROM blocked_ips");
+        List<Object> params = new ArrayList<>();
+        appendBlockedCriteria(sql, params, filter);
+        List<String> addresses = new ArrayList<>();
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    addresses.add(rs.getString(1));
+                }
+            }
+            return addresses;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ===============================
+    // Trusted Networks
+    // ===============================
+    /**
+     * @return every entry, or null on error
+     */
+    public static List<TrustedNetwork> getTrustedNetworks() {
+
+        String sql = "SELECT id, network, note, created_at FROM trusted_networks ORDER BY network";
+        List<TrustedNetwork> networks = new ArrayList<>();
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                TrustedNetwork network = new TrustedNetwork();
+                network.setId(rs.getInt("id"));
+                network.setNetwork(rs.getString("network"));
+                network.setNote(rs.getString("note"));
+                network.setCreatedAt(rs.getTimestamp("created_at"));
+                networks.add(network);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return networks;
+    }
+
+    /**
+     * Add an entry, or update the note of an existing one
+     */
+    public static boolean addTrustedNetwork(String network, String note) {
+
+        String sql = "INSERT INTO trusted_networks (network, note) VALUES (?, ?)" +
+                " ON DUPLICATE KEY UPDATE note=VALUES(note)";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setString(1, network);
+            stmt.setString(2, note);
+            stmt.executeUpdate();
+            markChanged();
+            return true;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * @return rows removed, or -1 on error (nothing is removed then)
+     */
+    public static int removeTrustedNetworks(List<String> networks) {
+        return updateByKeys("DELETE FROM trusted_networks WHERE network IN ", null, networks);
+    }
+
+    // ===============================
+    // Dashboard Stats
+    // ===============================
+    /**
+     * Returns {total users, active blocks, failed (24h), successful (24h)}
+     * in a single round-trip.
+     */
+    public static int[] getDashboardStats() {
+
+        String sql = "SELECT " +
+                "(SELECT COUNT(*) FROM users), " +
+                "(SELECT COUNT(*) FROM blocked_ips WHERE is_permanent=TRUE OR expiry_time > NOW()), " +
+                "(SELECT COUNT(*) FROM login_attempts WHERE status='FAILED' " +
+                "AND attempt_time >= NOW() - INTERVAL 24 HOUR), " +
+                "(SELECT COUNT(*) FROM login_attempts WHERE status='SUCCESS' " +
+                "AND attempt_time >= NOW() - INTERVAL 24 HOUR)";
+
+        int[] stats = new int[4];
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt(1);
+                for (int i = 0; i < stats.length; i++) {
+                    stats[i] = rs.getInt(i + 1);
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return stats;
+    }
+
+    // ===============================
+    // Search Login Attempts (streamed)
+    // ===============================
+    /**
+     * Stream login attempts matching the filter to the handler, one row at a
+     * time, without materializing the result. Each criterion maps onto a
+     * composite index created by {@link SchemaMigrator}.
+     *
+     * @return number of rows handed to the handler, or -1 if the query failed
+     */
+    public static int streamLoginAttempts(SearchFilter filter, int limit,
+                                          CancelToken token, RowHandler<LoginAttempt> handler) {
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, username, ip_address, status, attempt_time, user_agent FROM login_attempts");
+        List<Object> params = new ArrayList<>();
+
+        appendAttemptCriteria(sql, params, filter);
+        sql.append(" ORDER BY attempt_time ").append(filter.isNewestFirst() ? "DESC" : "ASC");
+        sql.append(" LIMIT ?");
+        params.add(limit);
+
+        return streamQuery(sql.toString(), params, token, rs -> mapLoginAttempt(rs), handler);
+    }
+
+    // ===============================
+    // Export Login Attempts (streamed)
+    // ===============================
+    /**
+     * Stream every attempt matching the filter in primary-key order.
+     * Unlike {@link #streamLoginAttempts} there is no limit and no sort on
+     * attempt_time, so the server can walk the clustered index directly
+     * instead of sorting hundreds of millions of rows.
+     *
+     * @return number of rows handed to the handler, or -1 if the query failed
+     * part way (the rows already handed over are incomplete)
+     */
+    public static long exportLoginAttempts(SearchFilter filter, CancelToken token,
+                                           RowHandler<LoginAttempt> handler) {
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, username, ip_address, status, attempt_time, user_agent FROM login_attempts");
+        List<Object> params = new ArrayList<>();
+
+        appendAttemptCriteria(sql, params, filter);
+        sql.append(" ORDER BY id");
+
+        return streamRows(sql.toString(), params, token, rs -> mapLoginAttempt(rs), handler);
+    }
+
+    /**
+     * Exact number of attempts matching the filter, e.g. to check that an
+     * archive holds every row before the originals are purged
+     *
+     * @return the count, or -1 on error
+     */
+    public static long countLoginAttempts(SearchFilter filter) {
+
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM login_attempts");
+        List<Object> params = new ArrayList<>();
+        appendAttemptCriteria(sql, params, filter);
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Fast row-count estimate from table statistics, for progress reporting.
+     * Exact COUNT(*) would scan the whole table.
+     */
+    public static long estimateRowCount(String table) {
+
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+
+            stmt.setString(1, table);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
             }
 
         } catch (SQLException e) {
@@ -155,4 +1232,229 @@ public class DatabaseManager {
 
         return 0;
     }
+
+    // ===============================
+    // Search Blocked IPs (streamed)
+    // ===============================
+    /**
+     * Stream blocked IPs matching the filter. Status is one of
+     * PERMANENT, ACTIVE or EXPIRED; the time range applies to blocked_time.
+     *
+     * @return number of rows handed to the handler, or -1 if the query failed
+     */
+    public static int streamBlockedIPs(SearchFilter filter, int limit,
+                                       CancelToken token, RowHandler<BlockedIP> handler) {
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, ip_address, blocked_time, expiry_time, reason, block_count, is_permanent " +
+                "FROM blocked_ips");
+        List<Object> params = new ArrayList<>();
+        appendBlockedCriteria(sql, params, filter);
+        sql.append(" ORDER BY blocked_time ").append(filter.isNewestFirst() ? "DESC" : "ASC");
+        sql.append(" LIMIT ?");
+        params.add(limit);
+
+        return streamQuery(sql.toString(), params, token, rs -> mapBlockedIP(rs), handler);
+    }
+
+    // ===============================
+    // Helpers
+    // ===============================
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static <T> int streamQuery(String sql, List<Object> params, CancelToken token,
+                                       RowMapper<T> mapper, RowHandler<T> handler) {
+        return (int) Math.min(Integer.MAX_VALUE, streamRows(sql, params, token, mapper, handler));
+    }
+
+    /**
+     * @return rows handed to the handler, or -1 if the query failed. A
+     * cancelled query or a handler returning false is not a failure.
+     */
+    private static <T> long streamRows(String sql, List<Object> params, CancelToken token,
+                                       RowMapper<T> mapper, RowHandler<T> handler) {
+        long count = 0;
+
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Row-by-row streaming instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            token.attach(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean exhausted = false;
+                while (!token.isCancelled()) {
+                    if (!rs.next()) {
+                        exhausted = true;
+                        break;
+                    }
+                    count++;
+                    if (!handler.handle(mapper.map(rs))) {
+                        break;
+                    }
+                }
+                if (!exhausted) {
+                    // Stop the server sending the rest instead of draining it
+                    stmt.cancel();
+                }
+            } finally {
+                token.detach();
+            }
+
+        } catch (SQLException e) {
+            // Cancelling aborts the statement, which surfaces here as well
+            if (!token.isCancelled()) {
+                e.printStackTrace();
+                return -1;
+            }
+        }
+
+        return count;
+    }
+
+    private static void appendAttemptCriteria(StringBuilder sql, List<Object> params,
+                                              SearchFilter filter) {
+        sql.append(" WHERE 1=1");
+        if (filter.hasIpPrefix()) {
+            sql.append(" AND ip_address LIKE ?");
+            params.add(escapeLike(filter.getIpPrefix()) + "%");
+        }
+        if (filter.hasUsername()) {
+            sql.append(" AND username=?");
+            params.add(filter.getUsername());
+        }
+        if (filter.hasStatus()) {
+            sql.append(" AND status=?");
+            params.add(filter.getStatus());
+        }
+        appendTimeRange(sql, params, "attempt_time", filter);
+    }
+
+    private static void appendBlockedCriteria(StringBuilder sql, List<Object> params,
+                                              SearchFilter filter) {
+        sql.append(" WHERE 1=1");
+        if (filter.hasIpPrefix()) {
+            sql.append(" AND ip_address LIKE ?");
+            params.add(escapeLike(filter.getIpPrefix()) + "%");
+        }
+        if (filter.hasStatus()) {
+            switch (filter.getStatus()) {
+                case "PERMANENT":
+                    sql.append(" AND is_permanent=TRUE");
+                    break;
+                case "ACTIVE":
+                    sql.append(" AND (is_permanent=TRUE OR expiry_time > NOW())");
+                    break;
+                case "EXPIRED":
+                    sql.append(" AND is_permanent=FALSE AND expiry_time <= NOW()");
+                    break;
+                default:
+                    break;
+            }
+        }
+        appendTimeRange(sql, params, "blocked_time", filter);
+    }
+
+    private static void appendTimeRange(StringBuilder sql, List<Object> params,
+                                        String column, SearchFilter filter) {
+        if (filter.getFrom() != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            params.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            params.add(filter.getTo());
+        }
+    }
+
+    /**
+     * Run "prefix (?, ?, ...)" over the keys in chunks of MAX_IN_LIST, all in
+     * one transaction
+     *
+     * @param leading value bound before the keys, or null for none
+     * @return rows affected, or -1 on error
+     */
+    private static int updateByKeys(String prefix, Object leading, List<?> keys) {
+
+        if (keys.isEmpty()) return 0;
+
+        try {
+            Connection conn = getConnection();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try {
+                int affected = 0;
+                for (int from = 0; from < keys.size(); from += MAX_IN_LIST) {
+                    List<?> chunk = keys.subList(from, Math.min(keys.size(), from + MAX_IN_LIST));
+                    String sql = prefix + "(" + placeholders(chunk.size()) + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        int index = 1;
+                        if (leading != null) {
+                            stmt.setObject(index++, leading);
+                        }
+                        for (Object key : chunk) {
+                            stmt.setObject(index++, key);
+                        }
+                        affected += stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                markChanged();
+                return affected;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static LoginAttempt mapLoginAttempt(ResultSet rs) throws SQLException {
+        LoginAttempt attempt = new LoginAttempt();
+        attempt.setId(rs.getInt("id"));
+        attempt.setUsername(rs.getString("username"));
+        attempt.setIpAddress(rs.getString("ip_address"));
+        attempt.setStatus(rs.getString("status"));
+        attempt.setAttemptTime(rs.getTimestamp("attempt_time"));
+        attempt.setUserAgent(rs.getString("user_agent"));
+        return attempt;
+    }
+
+    private static BlockedIP mapBlockedIP(ResultSet rs) throws SQLException {
+        BlockedIP blocked = new BlockedIP();
+        blocked.setId(rs.getInt("id"));
+        blocked.setIpAddress(rs.getString("ip_address"));
+        blocked.setBlockedTime(rs.getTimestamp("blocked_time"));
+        blocked.setExpiryTime(rs.getTimestamp("expiry_time"));
+        blocked.setReason(rs.getString("reason"));
+        blocked.setBlockCount(rs.getInt("block_count"));
+        blocked.setPermanent(rs.getBoolean("is_permanent"));
+        return blocked;
+    }
 }
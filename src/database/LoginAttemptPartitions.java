@@ -0,0 +1,141 @@
+package database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Login Attempt Partitions - Maintains the daily RANGE partitions of
+ * login_attempts created by {@link SchemaMigrator}
+ *
+ * Each day lives in partition pYYYYMMDD. Days ahead of time are split off
+ * the empty pmax partition so inserts never land in a catch-all.
+ */
+public class LoginAttemptPartitions {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    // MySQL TO_DAYS('1970-01-01')
+    private static final long TO_DAYS_EPOCH = 719528;
+
+    public static String partitionName(LocalDate day) {
+        return NAME_FORMAT.format(day);
+    }
+
+    // ===============================
+    // List Partitions
+    // ===============================
+    /**
+     * Daily partitions of login_attempts, oldest first. Empty if the table
+     * is not partitioned.
+     */
+    public static List<DayPartition> listDays() {
+        String sql = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS " +
+                "FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'login_attempts' " +
+                "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+        List<DayPartition> days = new ArrayList<>();
+
+        try (Statement stmt = DatabaseManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                String name = rs.getString(1);
+                String description = rs.getString(2);
+                if ("MAXVALUE".equalsIgnoreCase(description)) {
+                    continue;
+                }
+                // The bound is TO_DAYS of the day after the partition's day
+                LocalDate end = LocalDate.ofEpochDay(Long.parseLong(description.trim()) - TO_DAYS_EPOCH);
+                days.add(new DayPartition(name, end.minusDays(1), rs.getLong(3)));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return days;
+    }
+
+    // ===============================
+    // Create Upcoming Partitions
+    // ===============================
+    /**
+     * Make sure partitions exist through today + daysAhead.
+     *
+     * @return number of partitions created, or -1 on error
+     */
+    public static int ensureAhead(int daysAhead) {
+        List<DayPartition> days = listDays();
+        if (days.isEmpty()) {
+            return 0;   // not partitioned (yet)
+        }
+
+        LocalDate last = days.get(days.size() - 1).getDay();
+        LocalDate target = LocalDate.now().plusDays(daysAhead);
+        if (!last.isBefore(target)) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "ALTER TABLE login_attempts REORGANIZE PARTITION pmax INTO (");
+        int created = 0;
+        for (LocalDate day = last.plusDays(1); !day.isAfter(target); day = day.plusDays(1)) {
+            sql.append("PARTITION ").append(partitionName(day))
+                    .append(" VALUES LESS THAN (TO_DAYS('").append(day.plusDays(1)).append("')), ");
+            created++;
+        }
+        sql.append("PARTITION pmax VALUES LESS THAN MAXVALUE)");
+
+        try (Statement stmt = DatabaseManager.getConnection().createStatement()) {
+            stmt.executeUpdate(sql.toString());
+            return created;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    // ===============================
+    // Drop Partition
+    // ===============================
+    /**
+     * Drop a day's partition and every row in it. Far cheaper than a
+     * DELETE: no per-row undo log, and the space is released at once.
+     */
+    public static boolean drop(String partitionName) {
+        if (!partitionName.matches("p[0-9]{8}|p_history")) {
+            throw new IllegalArgumentException("Not a login_attempts day partition: " + partitionName);
+        }
+
+        try (Statement stmt = DatabaseManager.getConnection().createStatement()) {
+            stmt.executeUpdate("ALTER TABLE login_attempts DROP PARTITION " + partitionName);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    public static class DayPartition {
+        private final String name;
+        private final LocalDate day;
+        private final long estimatedRows;
+
+        DayPartition(String name, LocalDate day, long estimatedRows) {
+            this.name = name;
+            this.day = day;
+            this.estimatedRows = estimatedRows;
+        }
+
+        public String getName() { return name; }
+
+        /** Last day covered; p_history covers everything up to and including it */
+        public LocalDate getDay() { return day; }
+        public long getEstimatedRows() { return estimatedRows; }
+    }
+}
@@ -0,0 +1,151 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Query Benchmark - Per-call latency of the hot detection queries, prepared
+ * fresh on an untuned connection ("before") versus through DatabaseManager's
+ * cached statements and driver settings ("after"). The last row compares a
+ * whole failed attempt: three separate calls versus the single
+ * sidrs_record_attempt procedure call.
+ *
+ * Needs the sidrs_db database. Writes a few login_attempts rows under a
+ * marker username and deletes them afterwards.
+ * <pre>
+ *   java database.QueryBenchmark [iterations]   (default 5000)
+ * </pre>
+ */
+public class QueryBenchmark {
+
+    private static final String USERNAME = "__query_benchmark__";
+    private static final String IP = "198.51.100.7";
+    private static final int WARMUP = 500;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+
+        try (Connection plain = DatabaseManager.openPlainConnection()) {
+            System.out.println("📊 " + iterations + " calls per query, times in µs");
+            System.out.printf("%-24s %10s %10s %10s %10s %8s%n",
+                    "query", "before avg", "before p99", "after avg", "after p99", "speedup");
+
+            compare("isIPBlocked", iterations, () -> {
+                try (PreparedStatement stmt = plain.prepareStatement(DatabaseManager.IS_BLOCKED_SQL)) {
+                    stmt.setString(1, IP);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                    }
+                }
+            }, () -> DatabaseManager.isIPBlocked(IP));
+
+            compare("getFailedAttemptsCount", iterations, () -> {
+                try (PreparedStatement stmt = plain.prepareStatement(DatabaseManager.FAILED_COUNT_SQL)) {
+                    stmt.setString(1, IP);
+                    stmt.setInt(2, 5);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                    }
+                }
+            }, () -> DatabaseManager.getFailedAttemptsCount(IP, 5));
+
+            compare("validateUser", iterations, () -> {
+                try (PreparedStatement stmt = plain.prepareStatement(DatabaseManager.VALIDATE_USER_SQL)) {
+                    stmt.setString(1, USERNAME);
+                    stmt.setString(2, "wrong");
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                    }
+                }
+            }, () -> DatabaseManager.validateUser(USERNAME, "wrong"));
+
+            compare("recordLoginAttempt", iterations, () -> {
+                try (PreparedStatement stmt = plain.prepareStatement(DatabaseManager.RECORD_ATTEMPT_SQL)) {
+                    stmt.setString(1, USERNAME);
+                    stmt.setString(2, IP);
+                    stmt.setString(3, "FAILED");
+                    stmt.setString(4, null);
+                    stmt.executeUpdate();
+                }
+            }, () -> DatabaseManager.recordLoginAttempt(USERNAME, IP, "FAILED", null));
+
+            // A threshold that is never reached, so the address stays unblocked
+            if (DatabaseManager.recordAttemptAndCount(USERNAME, IP, false, null, 5, Integer.MAX_VALUE, 1,
+                    "benchmark") == null) {
+                System.out.println("⚠️ sidrs_record_attempt not available; run the migrations first");
+                return;
+            }
+            compare("failed attempt, 3 vs 1", iterations, () -> {
+                DatabaseManager.isIPBlocked(IP);
+                DatabaseManager.recordLoginAttempt(USERNAME, IP, "FAILED", null);
+                DatabaseManager.getFailedAttemptsCount(IP, 5);
+            }, () -> DatabaseManager.recordAttemptAndCount(USERNAME, IP, false, null, 5, Integer.MAX_VALUE, 1,
+                    "benchmark"));
+
+        } finally {
+            cleanUp();
+        }
+    }
+
+    private static void compare(String name, int iterations, Call before, Call after) throws SQLException {
+        long[] beforeNanos = time(before, iterations);
+        long[] afterNanos = time(after, iterations);
+
+        double beforeAvg = average(beforeNanos);
+        double afterAvg = average(afterNanos);
+        System.out.printf("%-24s %10.1f %10.1f %10.1f %10.1f %7.2fx%n", name,
+                beforeAvg / 1000, percentile(beforeNanos, 0.99) / 1000.0,
+                afterAvg / 1000, percentile(afterNanos, 0.99) / 1000.0,
+                beforeAvg / afterAvg);
+    }
+
+    private static long[] time(Call call, int iterations) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            call.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double average(long[] nanos) {
+        long sum = 0;
+        for (long n : nanos) {
+            sum += n;
+        }
+        return (double) sum / nanos.length;
+    }
+
+    // nanos must be sorted
+    private static long percentile(long[] nanos, double p) {
+        return nanos[Math.min(nanos.length - 1, (int) (nanos.length * p))];
+    }
+
+    private static void cleanUp() {
+        try (PreparedStatement stmt = DatabaseManager.getConnection()
+                .prepareStatement("DELETE FROM login_attempts WHERE username=?")) {
+            stmt.setString(1, USERNAME);
+            int removed = stmt.executeUpdate();
+            System.out.println("🧹 Removed " + removed + " benchmark rows");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws SQLException;
+    }
+}
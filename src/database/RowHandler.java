@@ -0,0 +1,10 @@
+package database;
+
+/**
+ * Callback for rows streamed out of a query.
+ * Return false to stop reading further rows.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    boolean handle(T row);
+}
@@ -0,0 +1,298 @@
+package database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema Migrator - Versioned DDL for sidrs_db, applied at startup
+ *
+ * Each migration runs once and is recorded in schema_version. Migrations are
+ * applied in order under a named MySQL lock so several nodes starting at once
+ * don't race. MySQL DDL is not transactional, so statements are written to be
+ * re-runnable: errors meaning "already there" (e.g. from the old
+ * ensureIndexes call) are ignored, anything else stops the run.
+ */
+public class SchemaMigrator {
+
+    private static final String LOCK_NAME = "sidrs_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    // MySQL error codes for objects that already exist / are already gone
+    private static final int ER_TABLE_EXISTS = 1050;
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    // Body of sidrs_record_attempt (migrations 7 and 9); gives up rather
+    // than count without the per-IP lock
+    private static final String RECORD_ATTEMPT_PROCEDURE =
+            "CREATE PROCEDURE sidrs_record_attempt(" +
+            " IN p_username VARCHAR(50), IN p_ip VARCHAR(45), IN p_success BOOLEAN," +
+            " IN p_user_agent VARCHAR(255), IN p_window_minutes INT, IN p_max_failed INT," +
+            " IN p_block_minutes INT, IN p_reason VARCHAR(255))" +
+            " BEGIN" +
+            "  DECLARE v_lock VARCHAR(64) DEFAULT CONCAT('sidrs_attempt:', p_ip);" +
+            "  DECLARE v_blocked INT DEFAULT 0;" +
+            "  DECLARE v_failed INT DEFAULT 0;" +
+            "  DECLARE v_got INT DEFAULT 0;" +
+            "  DECLARE EXIT HANDLER FOR SQLEXCEPTION BEGIN DO RELEASE_LOCK(v_lock); RESIGNAL; END;" +
+            "  SELECT GET_LOCK(v_lock, 5) INTO v_got;" +
+            "  IF COALESCE(v_got, 0) <> 1 THEN" +
+            "   SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'sidrs_record_attempt: lock timeout';" +
+            "  END IF;" +
+            "  SELECT COUNT(*) INTO v_blocked FROM blocked_ips" +
+            "   WHERE ip_address = p_ip AND (is_permanent = TRUE OR expiry_time > NOW());" +
+            "  IF v_blocked > 0 THEN" +
+            "   INSERT INTO login_attempts (username, ip_address, status, user_agent)" +
+            "    VALUES (p_username, p_ip, 'BLOCKED', p_user_agent);" +
+            "  ELSE" +
+            "   INSERT INTO login_attempts (username, ip_address, status, user_agent)" +
+            "    VALUES (p_username, p_ip, IF(p_success, 'SUCCESS', 'FAILED'), p_user_agent);" +
+            "   IF NOT p_success THEN" +
+            "    SELECT COUNT(*) INTO v_failed FROM login_attempts" +
+            "     WHERE ip_address = p_ip AND status = 'FAILED'" +
+            "     AND attempt_time >= NOW() - INTERVAL p_window_minutes MINUTE;" +
+            "    IF v_failed >= p_max_failed THEN" +
+            "     INSERT INTO blocked_ips (ip_address, reason, expiry_time)" +
+            "      VALUES (p_ip, p_reason, NOW() + INTERVAL p_block_minutes MINUTE)" +
+            "      ON DUPLICATE KEY UPDATE reason = VALUES(reason), blocked_time = NOW()," +
+            "      expiry_time = GREATEST(COALESCE(expiry_time, VALUES(expiry_time)), VALUES(expiry_time))," +
+            "      block_count = block_count + 1;" +
+            "    END IF;" +
+            "   END IF;" +
+            "  END IF;" +
+            "  DO RELEASE_LOCK(v_lock);" +
+            "  SELECT v_blocked > 0 AS was_blocked, v_failed AS failed_count;" +
+            " END";
+
+    // ===============================
+    // Migrations
+    // ===============================
+    private static List<Migration> migrations() {
+        List<Migration> list = new ArrayList<>();
+
+        list.add(new Migration(1, "Base tables",
+                "CREATE TABLE IF NOT EXISTS users (" +
+                        " id INT AUTO_INCREMENT PRIMARY KEY," +
+                        " username VARCHAR(50) NOT NULL," +
+                        " password VARCHAR(255) NOT NULL," +
+                        " role VARCHAR(20) NOT NULL DEFAULT 'USER'," +
+                        " status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE'," +
+                        " created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                        " last_login TIMESTAMP NULL," +
+                        " UNIQUE KEY uk_users_username (username)" +
+                        ") ENGINE=InnoDB",
+                "CREATE TABLE IF NOT EXISTS login_attempts (" +
+                        " id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                        " username VARCHAR(50)," +
+                        " ip_address VARCHAR(45) NOT NULL," +
+                        " status VARCHAR(20) NOT NULL," +
+                        " attempt_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+                        " user_agent VARCHAR(255) NULL" +
+                        ") ENGINE=InnoDB",
+                "CREATE TABLE IF NOT EXISTS blocked_ips (" +
+                        " id INT AUTO_INCREMENT PRIMARY KEY," +
+                        " ip_address VARCHAR(45) NOT NULL," +
+                        " blocked_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                        " expiry_time TIMESTAMP NULL," +
+                        " reason VARCHAR(255)," +
+                        " block_count INT NOT NULL DEFAULT 1," +
+                        " is_permanent BOOLEAN NOT NULL DEFAULT FALSE" +
+                        ") ENGINE=InnoDB"));
+
+        // Columns older installs may be missing
+        list.add(new Migration(2, "Add user_agent and block_count columns",
+                "ALTER TABLE login_attempts ADD COLUMN user_agent VARCHAR(255) NULL",
+                "ALTER TABLE blocked_ips ADD COLUMN block_count INT NOT NULL DEFAULT 1"));
+
+        // One row per address so blockIP can upsert; keep the newest duplicate
+        list.add(new Migration(3, "Unique blocked_ips.ip_address",
+                "DELETE older FROM blocked_ips older JOIN blocked_ips newer " +
+                        "ON older.ip_address = newer.ip_address AND older.id < newer.id",
+                "CREATE UNIQUE INDEX uk_blocked_ip ON blocked_ips (ip_address)",
+                // Active-block count in getDashboardStats and the blocklist search
+                "CREATE INDEX idx_blocked_active ON blocked_ips (is_permanent, expiry_time)",
+                // getAllBlockedIPs ORDER BY blocked_time DESC
+                "CREATE INDEX idx_blocked_time ON blocked_ips (blocked_time)"));
+
+        // Secondary indexes also carry the primary key columns, so each of
+        // these covers its query without touching the row
+        list.add(new Migration(4, "Covering indexes for login_attempts",
+                // getFailedAttemptsCount: ip_address=? AND status='FAILED' AND attempt_time >= ?
+                // (also serves IP-prefix searches)
+                "CREATE INDEX idx_attempts_ip_status_time ON login_attempts (ip_address, status, attempt_time)",
+                "DROP INDEX idx_attempts_ip_time ON login_attempts",
+                // getDashboardStats 24h counts and status searches
+                "CREATE INDEX idx_attempts_status_time ON login_attempts (status, attempt_time)",
+                // username searches
+                "CREATE INDEX idx_attempts_user_time ON login_attempts (username, attempt_time)",
+                // getRecentLoginAttempts ORDER BY attempt_time DESC LIMIT ?
+                "CREATE INDEX idx_attempts_time ON login_attempts (attempt_time)"));
+
+        // Daily RANGE partitions let retention drop a whole day at once. The
+        // partitioning column has to be part of the primary key, and TO_DAYS
+        // needs a DATETIME column. Later days are split off pmax by
+        // LoginAttemptPartitions.
+        LocalDate today = LocalDate.now();
+        list.add(new Migration(5, "Partition login_attempts by day",
+                "ALTER TABLE login_attempts MODIFY attempt_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP",
+                "ALTER TABLE login_attempts DROP PRIMARY KEY, ADD PRIMARY KEY (id, attempt_time)",
+                "ALTER TABLE login_attempts PARTITION BY RANGE (TO_DAYS(attempt_time)) (" +
+                        " PARTITION p_history VALUES LESS THAN (TO_DAYS('" + today + "'))," +
+                        " PARTITION " + LoginAttemptPartitions.partitionName(today) +
+                        " VALUES LESS THAN (TO_DAYS('" + today.plusDays(1) + "'))," +
+                        " PARTITION pmax VALUES LESS THAN MAXVALUE)"));
+
+        list.add(new Migration(6, "Trusted networks allowlist",
+                "CREATE TABLE IF NOT EXISTS trusted_networks (" +
+                        " id INT AUTO_INCREMENT PRIMARY KEY," +
+                        " network VARCHAR(49) NOT NULL," +
+                        " note VARCHAR(255) NULL," +
+                        " created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                        " UNIQUE KEY uk_trusted_network (network)" +
+                        ") ENGINE=InnoDB"));
+
+        // One call for DetectionEngine's database-counter mode: block check,
+        // attempt insert, window count and block upsert. A named lock per IP
+        // makes concurrent attempts from one address count one at a time, so
+        // none of them misses the others' rows.
+        list.add(new Migration(7, "sidrs_record_attempt procedure",
+                "DROP PROCEDURE IF EXISTS sidrs_record_attempt",
+                RECORD_ATTEMPT_PROCEDURE));
+
+        // Detection locks get their own status so expiring one never
+        // releases a lock an admin set by hand. Existing LOCKED rows can't be
+        // told apart and stay with the admin.
+        list.add(new Migration(8, "AUTO_LOCKED user status",
+                "ALTER TABLE users MODIFY status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' " +
+                        "COMMENT 'ACTIVE, LOCKED (by an admin), AUTO_LOCKED (by detection), SUSPENDED'"));
+
+        // Version 7 ignored a GET_LOCK timeout and counted without the lock;
+        // the procedure now fails instead and DetectionEngine falls back
+        list.add(new Migration(9, "sidrs_record_attempt fails without its lock",
+                "DROP PROCEDURE IF EXISTS sidrs_record_attempt",
+                RECORD_ATTEMPT_PROCEDURE));
+
+        // Expiry of an AUTO_LOCKED status, so any node can release it after
+        // the locking node restarts or dies
+        list.add(new Migration(10, "users.locked_until",
+                "ALTER TABLE users ADD COLUMN locked_until TIMESTAMP NULL"));
+
+        return list;
+    }
+
+    // ===============================
+    // Apply Pending Migrations
+    // ===============================
+    /**
+     * Bring the schema up to the latest version.
+     *
+     * @return true if the schema is current
+     */
+    public static boolean migrate() {
+        try {
+            Connection conn = DatabaseManager.getConnection();
+
+            if (!DatabaseManager.acquireLock(LOCK_NAME, LOCK_TIMEOUT_SECONDS)) {
+                System.err.println("⚠️ Schema migration skipped: another node holds the lock");
+                return false;
+            }
+
+            try {
+                execute(conn, "CREATE TABLE IF NOT EXISTS schema_version (" +
+                        " version INT PRIMARY KEY," +
+                        " description VARCHAR(255) NOT NULL," +
+                        " applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+
+                int current = currentVersion(conn);
+                for (Migration migration : migrations()) {
+                    if (migration.version <= current) {
+                        continue;
+                    }
+
+                    long start = System.currentTimeMillis();
+                    for (String sql : migration.statements) {
+                        execute(conn, sql);
+                    }
+                    recordVersion(conn, migration);
+                    current = migration.version;
+
+                    System.out.println("🗄️ Applied migration " + migration.version + ": " +
+                            migration.description + " (" + (System.currentTimeMillis() - start) + " ms)");
+                }
+                return true;
+            } finally {
+                DatabaseManager.releaseLock(LOCK_NAME);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public static int getCurrentVersion() {
+        try {
+            return currentVersion(DatabaseManager.getConnection());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    public static int getLatestVersion() {
+        List<Migration> list = migrations();
+        return list.get(list.size() - 1).version;
+    }
+
+    // ===============================
+    // Helpers
+    // ===============================
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            int code = e.getErrorCode();
+            if (code != ER_TABLE_EXISTS && code != ER_DUP_FIELDNAME &&
+                    code != ER_DUP_KEYNAME && code != ER_CANT_DROP_FIELD_OR_KEY) {
+                throw e;
+            }
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            // Table not created yet
+            return 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.executeUpdate();
+        }
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    private static class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
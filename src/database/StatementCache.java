@@ -0,0 +1,66 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statement Cache - Prepared statements kept open on one connection
+ *
+ * The hot detection queries run thousands of times per connection; keeping
+ * their statements open means they are parsed and prepared on the server
+ * once, and every later call only sends the parameters. Not thread-safe:
+ * like the connection itself, each instance belongs to one thread.
+ */
+class StatementCache {
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    boolean isFor(Connection conn) {
+        return connection == conn;
+    }
+
+    /**
+     * The open statement for the SQL, preparing it on first use. Callers
+     * set every parameter each time and must not close it.
+     */
+    PreparedStatement get(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = connection.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+        return stmt;
+    }
+
+    /**
+     * Drop a statement after it failed, so the next call prepares it again
+     */
+    void discard(String sql) {
+        PreparedStatement stmt = statements.remove(sql);
+        if (stmt != null) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                // Connection already broken
+            }
+        }
+    }
+
+    void closeAll() {
+        for (String sql : statements.keySet().toArray(new String[0])) {
+            discard(sql);
+        }
+    }
+
+    int size() {
+        return statements.size();
+    }
+}
@@ -1,13 +1,37 @@
 import dataBase.DatabaseManager;
+import database.CancelToken;
+import database.RowHandler;
+import logic.AccountLockout;
+import logic.AdminCommandQueue;
+import logic.AttackRateSeries;
+import logic.DashboardSnapshotService;
+import logic.DataExporter;
+import logic.GeoDatabase;
+import logic.HeavyHitters;
 import logic.IPBlocker;
+import logic.ThreatFeedImporter;
+import logic.ThreatFeedImporter.ImportResult;
+import logic.TrustedNetworks;
+import logic.UserDirectory;
 import model.User;
 import model.LoginAttempt;
 import model.BlockedIP;
+import model.DashboardSnapshot;
+import model.SearchFilter;
+import model.TrustedNetwork;
 
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 /**
  * Admin Dashboard - Main control panel for security monitoring
@@ -23,6 +47,7 @@ public class AdminDashboard extends JFrame {
     private JLabel blockedIPsLabel;
     private JLabel failedAttemptsLabel;
     private JLabel successfulLoginsLabel;
+    private JLabel commandStatusLabel;
 
     // Tables
     private JTable usersTable;
@@ -30,15 +55,46 @@ public class AdminDashboard extends JFrame {
     private JTable blockedIPsTable;
 
     // Table models
-    private DefaultTableModel usersModel;
+    private UserTableModel usersModel;
     private DefaultTableModel attemptsModel;
     private DefaultTableModel blockedIPsModel;
+    private DefaultTableModel topIPsModel;
+    private DefaultTableModel topSubnetsModel;
+    private DefaultTableModel topUsersModel;
+    private DefaultTableModel trustedModel;
+
+    // Search - a non-null filter pins the table to search results
+    private static final int SEARCH_ROW_LIMIT = 10000;
+    // Manual blocks expire like automatic ones; use "Make Permanent" to keep one
+    private static final int MANUAL_BLOCK_MINUTES = 24 * 60;
+    private FilterBar attemptsFilterBar;
+    private FilterBar blockedFilterBar;
+    private SearchFilter attemptsFilter;
+    private SearchFilter blockedFilter;
+    private CancelToken attemptsSearchToken;
+    private CancelToken blockedSearchToken;
+
+    // Timers and workers, all stopped when the window is disposed
+    private final DashboardLifecycle lifecycle = new DashboardLifecycle();
+
+    // A snapshot arrived while admin commands were still pending
+    private boolean snapshotDeferred;
 
     public AdminDashboard(User user) {
         this.currentUser = user;
         initializeWindow();
         createComponents();
+
+        // Show the snapshot pre-fetched at startup while a fresh one loads
+        DashboardSnapshot prefetched = DashboardSnapshotService.getCurrent();
+        if (prefetched != null) {
+            applySnapshot(prefetched);
+        }
+
         loadAllData();
+        if (!UserDirectory.isLoaded()) {
+            loadUsers();
+        }
         startAutoRefresh();
     }
 
@@ -68,6 +124,8 @@ public class AdminDashboard extends JFrame {
         tabbedPane.addTab("👥 Users", createUsersPanel());
         tabbedPane.addTab("📝 Login History", createAttemptsPanel());
         tabbedPane.addTab("🚫 Blocked IPs", createBlockedIPsPanel());
+        tabbedPane.addTab("🎯 Top Attackers", createTopAttackersPanel());
+        tabbedPane.addTab("✅ Trusted Networks", createTrustedNetworksPanel());
 
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
         add(mainPanel);
@@ -92,14 +150,22 @@ public class AdminDashboard extends JFrame {
         userInfo.setFont(UIStyles.FONT_BODY);
         userInfo.setForeground(UIStyles.TEXT_SECONDARY);
 
+        commandStatusLabel = new JLabel();
+        commandStatusLabel.setFont(UIStyles.FONT_BODY);
+        commandStatusLabel.setForeground(UIStyles.TEXT_SECONDARY);
+
         JButton refreshBtn = new JButton("🔄 Refresh");
         UIStyles.styleButton(refreshBtn, UIStyles.INFO);
-        refreshBtn.addActionListener(e -> loadAllData());
+        refreshBtn.addActionListener(e -> {
+            loadAllData(true);
+            loadUsers();
+        });
 
         JButton logoutBtn = new JButton("🚪 Logout");
         UIStyles.styleButton(logoutBtn, UIStyles.DANGER);
         logoutBtn.addActionListener(e -> logout());
 
+        rightPanel.add(commandStatusLabel);
         rightPanel.add(userInfo);
         rightPanel.add(refreshBtn);
         rightPanel.add(logoutBtn);
@@ -150,7 +216,34 @@ public class AdminDashboard extends JFrame {
         viewLogsBtn.addActionListener(e -> tabbedPane.setSelectedIndex(2));
         actionsPanel.add(viewLogsBtn);
 
-        panel.add(actionsPanel, BorderLayout.CENTER);
+        // Live activity charts
+        JPanel chartsPanel = new JPanel(new GridLayout(3, 1, 0, 10));
+        chartsPanel.setBackground(UIStyles.BG_DARK);
+
+        SparklineChart[] charts = {
+                new SparklineChart("📈 Attempts / s (last hour)",
+                        AttackRateSeries.Series.ATTEMPTS, UIStyles.INFO),
+                new SparklineChart("⚠️ Failures / s (last hour)",
+                        AttackRateSeries.Series.FAILURES, UIStyles.WARNING),
+                new SparklineChart("🚫 Blocked / s (last hour)",
+                        AttackRateSeries.Series.BLOCKS, UIStyles.DANGER)
+        };
+        for (SparklineChart chart : charts) {
+            chartsPanel.add(chart);
+        }
+
+        lifecycle.schedule(1000, e -> {
+            for (SparklineChart chart : charts) {
+                chart.tick();
+            }
+        });
+
+        JPanel centerPanel = new JPanel(new BorderLayout(0, 20));
+        centerPanel.setBackground(UIStyles.BG_DARK);
+        centerPanel.add(actionsPanel, BorderLayout.NORTH);
+        centerPanel.add(chartsPanel, BorderLayout.CENTER);
+
+        panel.add(centerPanel, BorderLayout.CENTER);
 
         return panel;
     }
@@ -185,17 +278,22 @@ public class AdminDashboard extends JFrame {
         panel.setBackground(UIStyles.BG_DARK);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
-        // Table
-        String[] columns = {"ID", "Username", "Role", "Status", "Created At", "Last Login"};
-        usersModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Table, bound to the user directory
+        usersModel = new UserTableModel();
+        usersModel.attach();
+        lifecycle.onDispose(usersModel::detach);
 
         usersTable = new JTable(usersModel);
         UIStyles.styleTable(usersTable);
+        usersTable.getColumnModel().getColumn(3).setCellRenderer(new StatusCellRenderer());
+
+        // Users are few, so filter them in memory
+        TableRowSorter<UserTableModel> usersSorter = new TableRowSorter<>(usersModel);
+        usersTable.setRowSorter(usersSorter);
+        FilterBar usersFilterBar = new FilterBar(
+                new String[]{"ACTIVE", "LOCKED", "AUTO_LOCKED", "SUSPENDED"}, false, true, false);
+        usersFilterBar.setOnSearch(filter -> usersSorter.setRowFilter(buildUserRowFilter(filter)));
+        usersFilterBar.setOnClear(() -> usersSorter.setRowFilter(null));
 
         JScrollPane scrollPane = new JScrollPane(usersTable);
         scrollPane.getViewport().setBackground(UIStyles.BG_DARK);
@@ -216,7 +314,7 @@ public class AdminDashboard extends JFrame {
         buttonsPanel.add(lockBtn);
         buttonsPanel.add(unlockBtn);
 
-        panel.add(buttonsPanel, BorderLayout.NORTH);
+        panel.add(stackPanels(buttonsPanel, usersFilterBar), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
 
         return panel;
@@ -228,7 +326,7 @@ public class AdminDashboard extends JFrame {
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         // Table
-        String[] columns = {"ID", "Username", "IP Address", "Status", "Time"};
+        String[] columns = {"ID", "Username", "IP Address", "Status", "Time", "Origin"};
         attemptsModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -246,6 +344,24 @@ public class AdminDashboard extends JFrame {
         scrollPane.getViewport().setBackground(UIStyles.BG_DARK);
         scrollPane.setBorder(BorderFactory.createLineBorder(UIStyles.BG_CARD));
 
+        attemptsFilterBar = new FilterBar(new String[]{"SUCCESS", "FAILED", "BLOCKED"}, true, true, true);
+        attemptsFilterBar.setOnSearch(this::searchAttempts);
+        attemptsFilterBar.setOnCancel(() -> cancelSearch(attemptsSearchToken, attemptsFilterBar));
+        attemptsFilterBar.setOnClear(() -> {
+            cancelSearch(attemptsSearchToken, attemptsFilterBar);
+            attemptsFilter = null;
+            showSnapshotAttempts();
+        });
+
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        buttonsPanel.setBackground(UIStyles.BG_DARK);
+
+        JButton exportBtn = new JButton("💾 Export");
+        UIStyles.styleButton(exportBtn, UIStyles.INFO);
+        exportBtn.addActionListener(e -> exportData(true));
+        buttonsPanel.add(exportBtn);
+
+        panel.add(stackPanels(buttonsPanel, attemptsFilterBar), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
 
         return panel;
@@ -257,7 +373,7 @@ public class AdminDashboard extends JFrame {
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         // Table
-        String[] columns = {"ID", "IP Address", "Blocked Time", "Expiry", "Reason", "Count", "Permanent"};
+        String[] columns = {"ID", "IP Address", "Blocked Time", "Expiry", "Reason", "Count", "Permanent", "Origin"};
         blockedIPsModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -278,213 +394,878 @@ public class AdminDashboard extends JFrame {
 
         JButton unblockBtn = new JButton("🔓 Unblock Selected");
         UIStyles.styleButton(unblockBtn, UIStyles.SUCCESS);
+        unblockBtn.setToolTipText("Unblock the selected rows, or every search match when nothing is selected");
         unblockBtn.addActionListener(e -> unblockSelectedIP());
 
         JButton permanentBtn = new JButton("⛔ Make Permanent");
         UIStyles.styleButton(permanentBtn, UIStyles.DANGER);
+        permanentBtn.setToolTipText("Block the selected rows permanently, or every search match when nothing is selected");
         permanentBtn.addActionListener(e -> makePermanentBlock());
 
+        JButton exportBtn = new JButton("💾 Export");
+        UIStyles.styleButton(exportBtn, UIStyles.INFO);
+        exportBtn.addActionListener(e -> exportData(false));
+
+        JButton importBtn = new JButton("📥 Import Feed");
+        UIStyles.styleButton(importBtn, UIStyles.WARNING);
+        importBtn.addActionListener(e -> importThreatFeed());
+
         buttonsPanel.add(unblockBtn);
         buttonsPanel.add(permanentBtn);
+        buttonsPanel.add(importBtn);
+        buttonsPanel.add(exportBtn);
+
+        blockedFilterBar = new FilterBar(new String[]{"ACTIVE", "PERMANENT", "EXPIRED"}, true, false, true);
+        blockedFilterBar.setOnSearch(this::searchBlockedIPs);
+        blockedFilterBar.setOnCancel(() -> cancelSearch(blockedSearchToken, blockedFilterBar));
+        blockedFilterBar.setOnClear(() -> {
+            cancelSearch(blockedSearchToken, blockedFilterBar);
+            blockedFilter = null;
+            showSnapshotBlockedIPs();
+            // Bulk actions on the search result may have made the snapshot stale
+            loadAllData();
+        });
+
+        panel.add(stackPanels(buttonsPanel, blockedFilterBar), BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private JPanel createTrustedNetworksPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 15));
+        panel.setBackground(UIStyles.BG_DARK);
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Table
+        String[] columns = {"Network", "Note", "Added"};
+        trustedModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        JTable trustedTable = new JTable(trustedModel);
+        UIStyles.styleTable(trustedTable);
+
+        JScrollPane scrollPane = new JScrollPane(trustedTable);
+        scrollPane.getViewport().setBackground(UIStyles.BG_DARK);
+        scrollPane.setBorder(BorderFactory.createLineBorder(UIStyles.BG_CARD));
+
+        // Action buttons
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        buttonsPanel.setBackground(UIStyles.BG_DARK);
 
-        panel.add(buttonsPanel, BorderLayout.NORTH);
+        JButton addBtn = new JButton("➕ Add Network");
+        UIStyles.styleButton(addBtn, UIStyles.SUCCESS);
+        addBtn.addActionListener(e -> showAddTrustedDialog());
+
+        JButton removeBtn = new JButton("➖ Remove Selected");
+        UIStyles.styleButton(removeBtn, UIStyles.DANGER);
+        removeBtn.addActionListener(e -> removeSelectedTrusted(trustedTable));
+
+        JButton reloadBtn = new JButton("🔄 Reload");
+        UIStyles.styleButton(reloadBtn, UIStyles.INFO);
+        reloadBtn.addActionListener(e -> loadTrustedNetworks(true));
+
+        buttonsPanel.add(addBtn);
+        buttonsPanel.add(removeBtn);
+        buttonsPanel.add(reloadBtn);
+
+        JLabel hint = new JLabel("Addresses and CIDR ranges here skip rate limiting, " +
+                "failure counting, logging and blocking.");
+        UIStyles.styleLabel(hint, UIStyles.FONT_BODY, UIStyles.TEXT_SECONDARY);
+
+        panel.add(stackPanels(buttonsPanel, hint), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
 
+        loadTrustedNetworks(false);
+        return panel;
+    }
+
+    private JPanel createTopAttackersPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 15));
+        panel.setBackground(UIStyles.BG_DARK);
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel title = new JLabel("Most active sources of failed logins, last " +
+                HeavyHitters.getWindowMinutes() + " minutes (this node)");
+        UIStyles.styleLabel(title, UIStyles.FONT_BODY, UIStyles.TEXT_SECONDARY);
+
+        JPanel tables = new JPanel(new GridLayout(1, 3, 15, 0));
+        tables.setBackground(UIStyles.BG_DARK);
+
+        topIPsModel = createTopKModel("IP Address");
+        topSubnetsModel = createTopKModel("Subnet");
+        topUsersModel = createTopKModel("Username");
+
+        tables.add(createTopKTable("🌐 Attacking IPs", topIPsModel));
+        tables.add(createTopKTable("🕸️ Attacking Subnets", topSubnetsModel));
+        tables.add(createTopKTable("👤 Targeted Users", topUsersModel));
+
+        panel.add(title, BorderLayout.NORTH);
+        panel.add(tables, BorderLayout.CENTER);
+
+        // Reads are O(K) from the in-memory sketches, so refresh often
+        lifecycle.schedule(2000, e -> refreshTopAttackers());
+
         return panel;
     }
 
+    private DefaultTableModel createTopKModel(String keyColumn) {
+        return new DefaultTableModel(new String[]{"#", keyColumn, "Failures", "±"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private JPanel createTopKTable(String title, DefaultTableModel model) {
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.setBackground(UIStyles.BG_DARK);
+
+        JLabel label = new JLabel(title);
+        UIStyles.styleLabel(label, UIStyles.FONT_HEADING, UIStyles.TEXT_PRIMARY);
+
+        JTable table = new JTable(model);
+        UIStyles.styleTable(table);
+        table.getColumnModel().getColumn(0).setMaxWidth(40);
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.getViewport().setBackground(UIStyles.BG_DARK);
+        scrollPane.setBorder(BorderFactory.createLineBorder(UIStyles.BG_CARD));
+
+        panel.add(label, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private void refreshTopAttackers() {
+        fillTopK(topIPsModel, HeavyHitters.topIPs());
+        fillTopK(topSubnetsModel, HeavyHitters.topSubnets());
+        fillTopK(topUsersModel, HeavyHitters.topUsernames());
+    }
+
+    private void fillTopK(DefaultTableModel model, List<HeavyHitters.Entry> entries) {
+        model.setRowCount(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            HeavyHitters.Entry entry = entries.get(i);
+            model.setValueAt(i + 1, i, 0);
+            model.setValueAt(entry.getKey(), i, 1);
+            model.setValueAt(entry.getCount(), i, 2);
+            model.setValueAt(entry.getError(), i, 3);
+        }
+    }
+
     private void loadAllData() {
-        loadDashboardStats();
-        loadUsers();
-        loadLoginAttempts();
-        loadBlockedIPs();
+        loadAllData(false);
     }
 
-    private void loadDashboardStats() {
-        SwingWorker<int[], Void> worker = new SwingWorker<>() {
+    private void loadAllData(boolean force) {
+        SwingWorker<DashboardSnapshot, Void> worker = new SwingWorker<>() {
             @Override
-            protected int[] doInBackground() {
-                return DatabaseManager.getDashboardStats();
+            protected DashboardSnapshot doInBackground() throws Exception {
+                return DashboardSnapshotService.refresh(force);
             }
 
             @Override
             protected void done() {
+                if (isCancelled()) return;
                 try {
-                    int[] stats = get();
-                    totalUsersLabel.setText(String.valueOf(stats[0]));
-                    blockedIPsLabel.setText(String.valueOf(stats[1]));
-                    failedAttemptsLabel.setText(String.valueOf(stats[2]));
-                    successfulLoginsLabel.setText(String.valueOf(stats[3]));
+                    DashboardSnapshot snapshot = get();
+                    // Only apply the latest published snapshot; skip if unchanged
+                    if (snapshot != null && snapshot == DashboardSnapshotService.getCurrent()) {
+                        if (AdminCommandQueue.pendingCount() > 0) {
+                            // Don't overwrite optimistic rows; reload once the queue drains
+                            snapshotDeferred = true;
+                        } else {
+                            applySnapshot(snapshot);
+                        }
+                    }
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
             }
         };
-        worker.execute();
+        lifecycle.execute(worker);
     }
 
+    /**
+     * Reload the user directory; the Users tab follows it
+     */
     private void loadUsers() {
-        SwingWorker<List<User>, Void> worker = new SwingWorker<>() {
+        SwingWorker<Void, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() {
+                UserDirectory.load();
+                return null;
+            }
+        };
+        lifecycle.execute(worker);
+    }
+
+    private void applySnapshot(DashboardSnapshot snapshot) {
+        totalUsersLabel.setText(String.valueOf(snapshot.getTotalUsers()));
+        blockedIPsLabel.setText(String.valueOf(snapshot.getActiveBlocks()));
+        failedAttemptsLabel.setText(String.valueOf(snapshot.getFailedLast24h()));
+        successfulLoginsLabel.setText(String.valueOf(snapshot.getSuccessLast24h()));
+
+        // Tables showing search results keep them until the search is cleared
+        if (attemptsFilter == null) {
+            showSnapshotAttempts();
+        }
+        if (blockedFilter == null) {
+            showSnapshotBlockedIPs();
+        }
+    }
+
+    private void showSnapshotAttempts() {
+        attemptsModel.setRowCount(0);
+        DashboardSnapshot snapshot = DashboardSnapshotService.getCurrent();
+        if (snapshot == null) return;
+        for (LoginAttempt attempt : snapshot.getAttempts()) {
+            attemptsModel.addRow(attemptRow(attempt));
+        }
+    }
+
+    private void showSnapshotBlockedIPs() {
+        blockedIPsModel.setRowCount(0);
+        DashboardSnapshot snapshot = DashboardSnapshotService.getCurrent();
+        if (snapshot == null) return;
+        for (BlockedIP blocked : snapshot.getBlockedIPs()) {
+            blockedIPsModel.addRow(blockedRow(blocked));
+        }
+    }
+
+    private Object[] attemptRow(LoginAttempt attempt) {
+        return new Object[]{
+                attempt.getId(),
+                attempt.getUsername(),
+                attempt.getIpAddress(),
+                StatusValue.cellValue(attempt.getStatus()),
+                TimeValue.of(attempt.getAttemptTime()),
+                GeoDatabase.describe(attempt.getIpAddress())
+        };
+    }
+
+    private Object[] blockedRow(BlockedIP blocked) {
+        return new Object[]{
+                blocked.getId(),
+                blocked.getIpAddress(),
+                TimeValue.of(blocked.getBlockedTime()),
+                TimeValue.of(blocked.getExpiryTime()),
+                blocked.getReason(),
+                blocked.getBlockCount(),
+                blocked.isPermanent() ? "Yes" : "No",
+                GeoDatabase.describe(blocked.getIpAddress())
+        };
+    }
+
+    // ===============================
+    // Search
+    // ===============================
+    private void searchAttempts(SearchFilter filter) {
+        if (attemptsSearchToken != null) attemptsSearchToken.cancel();
+        CancelToken token = new CancelToken();
+        attemptsSearchToken = token;
+        attemptsFilter = filter;
+
+        runSearch(attemptsFilterBar, attemptsModel, token,
+                handler -> DatabaseManager.streamLoginAttempts(filter, SEARCH_ROW_LIMIT, token, handler),
+                this::attemptRow);
+    }
+
+    private void searchBlockedIPs(SearchFilter filter) {
+        if (blockedSearchToken != null) blockedSearchToken.cancel();
+        CancelToken token = new CancelToken();
+        blockedSearchToken = token;
+        blockedFilter = filter;
+
+        runSearch(blockedFilterBar, blockedIPsModel, token,
+                handler -> DatabaseManager.streamBlockedIPs(filter, SEARCH_ROW_LIMIT, token, handler),
+                this::blockedRow);
+    }
+
+    /**
+     * Run a streamed query in the background, appending rows to the table
+     * in chunks as they arrive
+     */
+    private <T> void runSearch(FilterBar bar, DefaultTableModel model, CancelToken token,
+                               Function<RowHandler<T>, Integer> query, Function<T, Object[]> toRow) {
+        model.setRowCount(0);
+        bar.setSearching(true);
+        bar.setResultText("Searching...");
+
+        SwingWorker<Integer, Object[]> worker = new SwingWorker<>() {
+            @Override
+            protected Integer doInBackground() {
+                return query.apply(row -> {
+                    publish(toRow.apply(row));
+                    return true;
+                });
+            }
+
             @Override
-            protected List<User> doInBackground() {
-                return DatabaseManager.getAllUsers();
+            protected void process(List<Object[]> rows) {
+                // A cancelled or superseded search must not touch the table
+                if (token.isCancelled()) return;
+                for (Object[] row : rows) {
+                    model.addRow(row);
+                }
+                bar.setResultText(model.getRowCount() + " rows...");
             }
 
             @Override
             protected void done() {
+                if (token.isCancelled()) return;
+                bar.setSearching(false);
                 try {
-                    usersModel.setRowCount(0);
-                    for (User user : get()) {
-                        usersModel.addRow(new Object[]{
-                                user.getId(),
-                                user.getUsername(),
-                                user.getRole(),
-                                user.getStatus(),
-                                user.getCreatedAt(),
-                                user.getLastLogin()
-                        });
+                    int count = get();
+                    if (count < 0) {
+                        bar.setResultText("❌ Search failed after " + model.getRowCount() + " rows");
+                        return;
                     }
+                    bar.setResultText(count + " rows" + (count >= SEARCH_ROW_LIMIT ? " (limit reached)" : ""));
                 } catch (Exception e) {
+                    bar.setResultText("❌ Search failed");
                     e.printStackTrace();
                 }
             }
         };
-        worker.execute();
+        lifecycle.execute(worker, token::cancel);
     }
 
-    private void loadLoginAttempts() {
-        SwingWorker<List<LoginAttempt>, Void> worker = new SwingWorker<>() {
+    private void cancelSearch(CancelToken token, FilterBar bar) {
+        if (token != null && !token.isCancelled()) {
+            token.cancel();
+            bar.setResultText("Cancelled");
+        }
+        bar.setSearching(false);
+    }
+
+    private RowFilter<UserTableModel, Integer> buildUserRowFilter(SearchFilter filter) {
+        List<RowFilter<UserTableModel, Integer>> filters = new ArrayList<>();
+        if (filter.hasUsername()) {
+            filters.add(RowFilter.regexFilter("(?i)" + Pattern.quote(filter.getUsername()), 1));
+        }
+        if (filter.hasStatus()) {
+            filters.add(RowFilter.regexFilter("^" + Pattern.quote(filter.getStatus()) + "$", 3));
+        }
+        return filters.isEmpty() ? null : RowFilter.andFilter(filters);
+    }
+
+    // ===============================
+    // Export
+    // ===============================
+    /**
+     * Stream login attempts or the blocklist to a file chosen by the user.
+     * The active search filter, if any, restricts what is exported.
+     */
+    private void exportData(boolean attempts) {
+        String table = attempts ? "login_attempts" : "blocked_ips";
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + table + " (.csv or .sidrscol)");
+        chooser.setSelectedFile(new File(table + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = chooser.getSelectedFile();
+        DataExporter.Format format = DataExporter.formatFor(file);
+        SearchFilter active = attempts ? attemptsFilter : blockedFilter;
+        SearchFilter filter = active != null ? active : new SearchFilter();
+        CancelToken token = new CancelToken();
+
+        ProgressMonitor monitor = new ProgressMonitor(this,
+                "Exporting " + table + " to " + file.getName(), "Starting...", 0, 100);
+        monitor.setMillisToDecideToPopup(0);
+        monitor.setMillisToPopup(0);
+
+        SwingWorker<Long, Long> worker = new SwingWorker<>() {
+            private long estimate = 1;
+
             @Override
-            protected List<LoginAttempt> doInBackground() {
-                return DatabaseManager.getAllLoginAttempts();
+            protected Long doInBackground() throws Exception {
+                estimate = Math.max(1, DatabaseManager.estimateRowCount(table));
+                if (attempts) {
+                    return DataExporter.exportLoginAttempts(file, format, filter, token, n -> publish(n));
+                }
+                return DataExporter.exportBlockedIPs(file, format, filter, token, n -> publish(n));
+            }
+
+            @Override
+            protected void process(List<Long> counts) {
+                if (monitor.isCanceled()) {
+                    token.cancel();
+                    return;
+                }
+                long rows = counts.get(counts.size() - 1);
+                monitor.setProgress((int) Math.min(99, rows * 100 / estimate));
+                monitor.setNote(String.format("%,d rows written", rows));
             }
 
             @Override
             protected void done() {
+                monitor.close();
+                if (isCancelled()) return;
                 try {
-                    attemptsModel.setRowCount(0);
-                    for (LoginAttempt attempt : get()) {
-                        attemptsModel.addRow(new Object[]{
-                                attempt.getId(),
-                                attempt.getUsername(),
-                                attempt.getIpAddress(),
-                                attempt.getStatus(),
-                                attempt.getAttemptTime()
-                        });
+                    long rows = get();
+                    if (rows < 0) {
+                        showMessage("Export cancelled", "Export", JOptionPane.WARNING_MESSAGE);
+                    } else {
+                        showMessage(String.format("Exported %,d rows to %s", rows, file.getName()),
+                                "Export", JOptionPane.INFORMATION_MESSAGE);
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
+                    showMessage("Export failed: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
         };
-        worker.execute();
+        lifecycle.execute(worker, token::cancel);
     }
 
-    private void loadBlockedIPs() {
-        SwingWorker<List<BlockedIP>, Void> worker = new SwingWorker<>() {
+    // ===============================
+    // Threat Feed Import
+    // ===============================
+    private void importThreatFeed() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import blocklist (IPs, CIDRs or CSV: ip,reason,expiry)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+
+        String hours = JOptionPane.showInputDialog(this,
+                "Block duration in hours for entries without an expiry (0 = permanent):", "24");
+        if (hours == null) return;
+
+        int durationMinutes;
+        try {
+            durationMinutes = Math.max(0, Integer.parseInt(hours.trim())) * 60;
+        } catch (NumberFormatException e) {
+            showMessage("Invalid duration", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        CancelToken token = new CancelToken();
+        // Rough line count from file size, for the progress bar only
+        long estimatedLines = Math.max(1, file.length() / 16);
+        ProgressMonitor monitor = new ProgressMonitor(this,
+                "Importing " + file.getName(), "Starting...", 0, 100);
+        monitor.setMillisToDecideToPopup(0);
+        monitor.setMillisToPopup(0);
+
+        SwingWorker<ImportResult, Long> worker = new SwingWorker<>() {
             @Override
-            protected List<BlockedIP> doInBackground() {
-                return DatabaseManager.getAllBlockedIPs();
+            protected ImportResult doInBackground() throws Exception {
+                return ThreatFeedImporter.importFeed(new FileReader(file),
+                        "Threat feed: " + file.getName(), durationMinutes, token, n -> publish(n));
+            }
+
+            @Override
+            protected void process(List<Long> counts) {
+                if (monitor.isCanceled()) {
+                    token.cancel();
+                    return;
+                }
+                long lines = counts.get(counts.size() - 1);
+                monitor.setProgress((int) Math.min(99, lines * 100 / estimatedLines));
+                monitor.setNote(String.format("%,d lines read", lines));
             }
 
             @Override
             protected void done() {
+                monitor.close();
+                if (isCancelled()) return;
                 try {
-                    blockedIPsModel.setRowCount(0);
-                    for (BlockedIP blocked : get()) {
-                        blockedIPsModel.addRow(new Object[]{
-                                blocked.getId(),
-                                blocked.getIpAddress(),
-                                blocked.getBlockedTime(),
-                                blocked.getExpiryTime(),
-                                blocked.getReason(),
-                                blocked.getBlockCount(),
-                                blocked.isPermanent() ? "Yes" : "No"
-                        });
+                    ImportResult result = get();
+                    StringBuilder summary = new StringBuilder(String.format(
+                            "Imported %,d entries from %,d lines (%,d rejected, %,d failed)%s",
+                            result.getImported(), result.getLines(), result.getRejected(),
+                            result.getFailed(), result.isCancelled() ? "\n\nImport was cancelled." : ""));
+                    for (String error : result.getErrors()) {
+                        summary.append("\n").append(error);
                     }
+                    showMessage(summary.toString(), "Import Complete", JOptionPane.INFORMATION_MESSAGE);
+                    loadAllData();
                 } catch (Exception e) {
                     e.printStackTrace();
+                    showMessage("Import failed: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
         };
-        worker.execute();
+        lifecycle.execute(worker, token::cancel);
+    }
+
+    private JPanel stackPanels(JComponent top, JComponent bottom) {
+        JPanel stack = new JPanel(new BorderLayout(0, 10));
+        stack.setBackground(UIStyles.BG_DARK);
+        stack.add(top, BorderLayout.NORTH);
+        stack.add(bottom, BorderLayout.SOUTH);
+        return stack;
     }
 
+    // ===============================
+    // Admin Actions - queued off the EDT and shown optimistically
+    // ===============================
     private void toggleUserStatus(String status) {
-        int selectedRow = usersTable.getSelectedRow();
-        if (selectedRow < 0) {
+        List<Integer> rows = selectedModelRows(usersTable);
+        if (rows.isEmpty()) {
             showMessage("Please select a user first", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        int userId = (int) usersModel.getValueAt(selectedRow, 0);
-        String username = (String) usersModel.getValueAt(selectedRow, 1);
-
-        if (DatabaseManager.updateUserStatus(userId, status)) {
-            showMessage("User '" + username + "' status changed to " + status, "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadUsers();
-        } else {
-            showMessage("Failed to update user status", "Error", JOptionPane.ERROR_MESSAGE);
+        List<Integer> userIds = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        Map<Integer, String> updated = new HashMap<>();
+        Map<Integer, String> previous = new HashMap<>();
+        for (int row : rows) {
+            User user = usersModel.getUserAt(row);
+            userIds.add(user.getId());
+            usernames.add(user.getUsername());
+            updated.put(user.getId(), status);
+            previous.put(user.getId(), user.getStatus());
         }
+        // The directory tells the table which rows to repaint
+        UserDirectory.applyStatus(updated);
+
+        runCommand("set " + describe(usernames, "user") + " to " + status, () -> {
+            if (DatabaseManager.updateUserStatuses(userIds, status) < 0) {
+                return false;
+            }
+            if ("ACTIVE".equals(status)) {
+                // Also clear any automatic lockout still held in memory
+                usernames.forEach(AccountLockout::unlock);
+            }
+            return true;
+        }, null, () -> UserDirectory.applyStatus(previous));
     }
 
+    /**
+     * Acts on the selected rows, or on every IP matching the current search
+     * when nothing is selected
+     */
     private void unblockSelectedIP() {
-        int selectedRow = blockedIPsTable.getSelectedRow();
-        if (selectedRow < 0) {
-            showMessage("Please select an IP address first", "No Selection", JOptionPane.WARNING_MESSAGE);
-            return;
+        List<Integer> rows = selectedModelRows(blockedIPsTable);
+        SearchFilter matching = rows.isEmpty() ? confirmMatchingSearch("Unblock") : null;
+        if (rows.isEmpty()) {
+            if (matching == null) return;
+            rows = allRows(blockedIPsModel);
         }
 
-        String ipAddress = (String) blockedIPsModel.getValueAt(selectedRow, 1);
-
-        if (IPBlocker.unblockIP(ipAddress)) {
-            showMessage("IP '" + ipAddress + "' has been unblocked", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadBlockedIPs();
-            loadDashboardStats();
-        } else {
-            showMessage("Failed to unblock IP", "Error", JOptionPane.ERROR_MESSAGE);
+        List<String> ips = new ArrayList<>();
+        List<Object[]> removed = new ArrayList<>();
+        for (int row : rows) {
+            ips.add((String) blockedIPsModel.getValueAt(row, 1));
+            removed.add(rowValues(blockedIPsModel, row));
         }
+        // Bottom-up so the remaining indexes stay valid
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            blockedIPsModel.removeRow(rows.get(i));
+        }
+
+        String description = matching != null
+                ? "unblock every IP matching the search" : "unblock " + describe(ips, "IP");
+        runCommand(description, () -> IPBlocker.unblockIPs(matching != null ? findMatching(matching) : ips),
+                null, () -> {
+                    for (Object[] values : removed) {
+                        blockedIPsModel.addRow(values);
+                    }
+                });
     }
 
+    /**
+     * Acts on the selected rows, or on every IP matching the current search
+     * when nothing is selected
+     */
     private void makePermanentBlock() {
-        int selectedRow = blockedIPsTable.getSelectedRow();
-        if (selectedRow < 0) {
-            showMessage("Please select an IP address first", "No Selection", JOptionPane.WARNING_MESSAGE);
-            return;
+        List<Integer> rows = selectedModelRows(blockedIPsTable);
+        SearchFilter matching = rows.isEmpty() ? confirmMatchingSearch("Permanently block") : null;
+        if (rows.isEmpty()) {
+            if (matching == null) return;
+            rows = allRows(blockedIPsModel);
         }
 
-        String ipAddress = (String) blockedIPsModel.getValueAt(selectedRow, 1);
-
-        if (IPBlocker.setPermanentBlock(ipAddress, true)) {
-            showMessage("IP '" + ipAddress + "' is now permanently blocked", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadBlockedIPs();
-        } else {
-            showMessage("Failed to set permanent block", "Error", JOptionPane.ERROR_MESSAGE);
+        List<String> ips = new ArrayList<>();
+        List<Object> previous = new ArrayList<>();
+        for (int row : rows) {
+            ips.add((String) blockedIPsModel.getValueAt(row, 1));
+            previous.add(blockedIPsModel.getValueAt(row, 6));
+            blockedIPsModel.setValueAt("Yes", row, 6);
         }
+
+        String description = matching != null
+                ? "permanently block every IP matching the search" : "permanently block " + describe(ips, "IP");
+        runCommand(description,
+                () -> IPBlocker.setPermanentBlocks(matching != null ? findMatching(matching) : ips, true),
+                () -> refreshBlockedRows(ips), () -> {
+                    for (int i = 0; i < ips.size(); i++) {
+                        int row = findRow(blockedIPsModel, 1, ips.get(i));
+                        if (row >= 0) {
+                            blockedIPsModel.setValueAt(previous.get(i), row, 6);
+                        }
+                    }
+                });
     }
 
     private void showBlockIPDialog() {
         String ip = JOptionPane.showInputDialog(this, "Enter IP address to block:", "Block IP", JOptionPane.QUESTION_MESSAGE);
 
         if (ip != null && !ip.trim().isEmpty()) {
-            if (!IPBlocker.isValidIP(ip.trim())) {
+            String address = ip.trim();
+            if (!IPBlocker.isValidIP(address)) {
                 showMessage("Invalid IP address format", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
-            String reason = JOptionPane.showInputDialog(this, "Enter reason for blocking:", "Block Reason", JOptionPane.QUESTION_MESSAGE);
-            if (reason == null) reason = "Manually blocked by admin";
+            String input = JOptionPane.showInputDialog(this, "Enter reason for blocking:", "Block Reason", JOptionPane.QUESTION_MESSAGE);
+            String reason = input != null ? input : "Manually blocked by admin";
 
-            if (IPBlocker.blockIP(ip.trim(), reason)) {
-                showMessage("IP '" + ip + "' has been blocked", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadBlockedIPs();
-                loadDashboardStats();
+            // Mark an already listed address pending, otherwise add a placeholder;
+            // either row is replaced by the real one once it is read back
+            int existing = findRow(blockedIPsModel, 1, address);
+            Object[] previous = existing >= 0 ? rowValues(blockedIPsModel, existing) : null;
+            if (existing >= 0) {
+                blockedIPsModel.setValueAt("pending", existing, 2);
+                blockedIPsModel.setValueAt(reason, existing, 4);
             } else {
-                showMessage("Failed to block IP", "Error", JOptionPane.ERROR_MESSAGE);
+                blockedIPsModel.insertRow(0, new Object[]{null, address, "pending", null, reason, 1, "No",
+                        GeoDatabase.describe(address)});
             }
+
+            runCommand("block " + describe(List.of(address), "IP"),
+                    () -> IPBlocker.blockIP(address, reason, MANUAL_BLOCK_MINUTES),
+                    () -> refreshBlockedRows(List.of(address)), () -> {
+                        int row = findRow(blockedIPsModel, 1, address);
+                        if (row < 0) return;
+                        if (previous == null) {
+                            blockedIPsModel.removeRow(row);
+                            return;
+                        }
+                        for (int column = 0; column < previous.length; column++) {
+                            blockedIPsModel.setValueAt(previous[column], row, column);
+                        }
+                    });
         }
     }
 
+    private void showAddTrustedDialog() {
+        String input = JOptionPane.showInputDialog(this, "IP address or CIDR range to trust:",
+                "Add Trusted Network", JOptionPane.QUESTION_MESSAGE);
+        if (input == null || input.trim().isEmpty()) return;
+
+        String network = TrustedNetworks.normalize(input);
+        if (network == null) {
+            showMessage("Invalid IP address or CIDR range", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        String note = JOptionPane.showInputDialog(this, "Note (e.g. office NAT, health check):",
+                "Add Trusted Network", JOptionPane.QUESTION_MESSAGE);
+
+        trustedModel.addRow(new Object[]{network, note, "pending"});
+        runCommand("trust " + network, () -> TrustedNetworks.add(network, note),
+                () -> loadTrustedNetworks(false), () -> {
+                    int row = findRow(trustedModel, 0, network);
+                    if (row >= 0) {
+                        trustedModel.removeRow(row);
+                    }
+                });
+    }
+
+    private void removeSelectedTrusted(JTable table) {
+        List<Integer> rows = selectedModelRows(table);
+        if (rows.isEmpty()) {
+            showMessage("Please select a network first", "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        List<String> networks = new ArrayList<>();
+        List<Object[]> removed = new ArrayList<>();
+        for (int row : rows) {
+            networks.add((String) trustedModel.getValueAt(row, 0));
+            removed.add(rowValues(trustedModel, row));
+        }
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            trustedModel.removeRow(rows.get(i));
+        }
+
+        runCommand("stop trusting " + describe(networks, "network"), () -> TrustedNetworks.remove(networks),
+                null, () -> {
+                    for (Object[] values : removed) {
+                        trustedModel.addRow(values);
+                    }
+                });
+    }
+
+    /**
+     * @param reloadAllowlist also make detection re-read the allowlist now
+     */
+    private void loadTrustedNetworks(boolean reloadAllowlist) {
+        SwingWorker<List<TrustedNetwork>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<TrustedNetwork> doInBackground() {
+                if (reloadAllowlist) {
+                    TrustedNetworks.reload();
+                }
+                return DatabaseManager.getTrustedNetworks();
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    List<TrustedNetwork> networks = get();
+                    if (networks == null) return;
+                    trustedModel.setRowCount(0);
+                    for (TrustedNetwork network : networks) {
+                        trustedModel.addRow(new Object[]{
+                                network.getNetwork(),
+                                network.getNote(),
+                                TimeValue.of(network.getCreatedAt())
+                        });
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        lifecycle.execute(worker);
+    }
+
+    /**
+     * Queue an action already applied to the tables. On success only the
+     * affected rows are re-read (onSuccess, may be null); on failure the
+     * change is undone.
+     */
+    private void runCommand(String description, Supplier<Boolean> action,
+                            Runnable onSuccess, Runnable rollback) {
+        commandStatusLabel.setText("⏳ " + description + "...");
+
+        AdminCommandQueue.submit(description, action).thenAccept(ok -> SwingUtilities.invokeLater(() -> {
+            // The command itself still completes; only the UI follow-up is skipped
+            if (lifecycle.isDisposed()) return;
+            if (ok) {
+                commandStatusLabel.setText("✅ Done: " + description);
+                if (onSuccess != null) {
+                    onSuccess.run();
+                }
+            } else {
+                rollback.run();
+                commandStatusLabel.setText("❌ Failed: " + description);
+                showMessage("Failed to " + description + ". The change has been undone.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+            // A refresh held back while commands were pending
+            if (snapshotDeferred && AdminCommandQueue.pendingCount() == 0) {
+                snapshotDeferred = false;
+                loadAllData(true);
+            }
+        }));
+    }
+
+    /**
+     * With nothing selected, offer to act on the whole search result
+     *
+     * @return the active search filter if confirmed, otherwise null
+     */
+    private SearchFilter confirmMatchingSearch(String action) {
+        if (blockedFilter == null) {
+            showMessage("Please select an IP address first", "No Selection", JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+
+        int confirm = JOptionPane.showConfirmDialog(this,
+                action + " every IP matching the current search?\n" +
+                        "This includes matches beyond the " + blockedIPsModel.getRowCount() + " rows shown.",
+                "Bulk Action",
+                JOptionPane.YES_NO_OPTION);
+        return confirm == JOptionPane.YES_OPTION ? blockedFilter : null;
+    }
+
+    /**
+     * Runs on the command thread; an unreadable search becomes a failed command
+     */
+    private List<String> findMatching(SearchFilter filter) {
+        List<String> ips = DatabaseManager.findBlockedIPAddresses(filter);
+        if (ips == null) {
+            throw new IllegalStateException("could not read the matching IPs");
+        }
+        return ips;
+    }
+
+    /**
+     * Re-read the given IPs and update just their rows
+     */
+    private void refreshBlockedRows(List<String> ips) {
+        SwingWorker<List<BlockedIP>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<BlockedIP> doInBackground() {
+                return DatabaseManager.getBlockedIPs(ips);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    for (BlockedIP blocked : get()) {
+                        int row = findRow(blockedIPsModel, 1, blocked.getIpAddress());
+                        if (row < 0) continue;
+                        Object[] values = blockedRow(blocked);
+                        for (int column = 0; column < values.length; column++) {
+                            blockedIPsModel.setValueAt(values[column], row, column);
+                        }
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        lifecycle.execute(worker);
+    }
+
+    private List<Integer> allRows(DefaultTableModel model) {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<Integer> selectedModelRows(JTable table) {
+        List<Integer> rows = new ArrayList<>();
+        for (int viewRow : table.getSelectedRows()) {
+            rows.add(table.convertRowIndexToModel(viewRow));
+        }
+        rows.sort(null);
+        return rows;
+    }
+
+    private int findRow(DefaultTableModel model, int column, Object key) {
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (key.equals(model.getValueAt(row, column))) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private Object[] rowValues(DefaultTableModel model, int row) {
+        Object[] values = new Object[model.getColumnCount()];
+        for (int column = 0; column < values.length; column++) {
+            values[column] = model.getValueAt(row, column);
+        }
+        return values;
+    }
+
+    private String describe(List<String> keys, String noun) {
+        return keys.size() == 1 ? noun + " '" + keys.get(0) + "'" : keys.size() + " " + noun + "s";
+    }
+
     private void showMessage(String message, String title, int type) {
         JOptionPane.showMessageDialog(this, message, title, type);
     }
@@ -501,23 +1282,35 @@ public class AdminDashboard extends JFrame {
         }
     }
 
+    /**
+     * Stops every timer and background worker this window started
+     */
+    @Override
+    public void dispose() {
+        lifecycle.dispose();
+        super.dispose();
+    }
+
     private void startAutoRefresh() {
         // Auto-refresh every 30 seconds
-        Timer timer = new Timer(30000, e -> loadAllData());
-        timer.start();
+        lifecycle.schedule(30000, e -> loadAllData());
     }
 
-    // Custom cell renderer for status column
-    private class StatusCellRenderer extends DefaultTableCellRenderer {
+    // Custom cell renderer for status column. Known statuses carry their own
+    // color and font, so painting does no lookups or string work.
+    private static class StatusCellRenderer extends DefaultTableCellRenderer {
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value,
                                                        boolean isSelected, boolean hasFocus, int row, int column) {
 
             Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 
-            if (!isSelected && value != null) {
-                String status = value.toString();
-                setForeground(UIStyles.getStatusColor(status));
+            if (!isSelected && value instanceof StatusValue) {
+                StatusValue status = (StatusValue) value;
+                setForeground(status.getColor());
+                setFont(status.getFont());
+            } else if (!isSelected && value != null) {
+                setForeground(UIStyles.getStatusColor(value.toString()));
                 setFont(UIStyles.FONT_BUTTON);
             }
 
@@ -525,4 +1318,3 @@ public class AdminDashboard extends JFrame {
         }
     }
 }
-
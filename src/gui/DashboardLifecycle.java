@@ -0,0 +1,137 @@
+package gui;
+
+import javax.swing.*;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dashboard Lifecycle - Owns the timers, background workers and cleanup
+ * hooks started by one dashboard window, and stops all of them when the
+ * window is disposed
+ *
+ * Everything except the worker bookkeeping runs on the EDT.
+ */
+public class DashboardLifecycle {
+
+    // Across all windows, so leaks show up as a number that keeps growing
+    private static final AtomicInteger totalLiveTasks = new AtomicInteger();
+
+    private final List<Timer> timers = new ArrayList<>();
+    private final Map<SwingWorker<?, ?>, Runnable> workers = new ConcurrentHashMap<>();
+    private final List<Runnable> disposeHooks = new ArrayList<>();
+    private volatile boolean disposed;
+
+    /**
+     * Start a repeating timer that is stopped on dispose
+     */
+    public Timer schedule(int periodMillis, ActionListener action) {
+        Timer timer = new Timer(periodMillis, action);
+        if (disposed) {
+            return timer;
+        }
+        timers.add(timer);
+        totalLiveTasks.incrementAndGet();
+        timer.start();
+        return timer;
+    }
+
+    /**
+     * Execute a worker that is cancelled on dispose
+     */
+    public void execute(SwingWorker<?, ?> worker) {
+        execute(worker, () -> {});
+    }
+
+    /**
+     * Execute a worker; on dispose, run cancelAction (e.g. cancel its query)
+     * and then cancel the worker itself
+     */
+    public void execute(SwingWorker<?, ?> worker, Runnable cancelAction) {
+        if (disposed) {
+            return;
+        }
+
+        workers.put(worker, cancelAction);
+        totalLiveTasks.incrementAndGet();
+        worker.addPropertyChangeListener(e -> {
+            if ("state".equals(e.getPropertyName()) && e.getNewValue() == SwingWorker.StateValue.DONE) {
+                forget(worker);
+            }
+        });
+        worker.execute();
+    }
+
+    /**
+     * Run when the window is disposed, e.g. to detach a listener
+     */
+    public void onDispose(Runnable hook) {
+        if (disposed) {
+            hook.run();
+        } else {
+            disposeHooks.add(hook);
+        }
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Stop everything this window started. Safe to call more than once.
+     */
+    public void dispose() {
+        if (disposed) return;
+        disposed = true;
+
+        int stoppedTimers = timers.size();
+        for (Timer timer : timers) {
+            timer.stop();
+        }
+        totalLiveTasks.addAndGet(-stoppedTimers);
+        timers.clear();
+
+        int cancelledWorkers = workers.size();
+        for (Map.Entry<SwingWorker<?, ?>, Runnable> entry : workers.entrySet()) {
+            entry.getValue().run();
+            // No interrupt: the thread may be inside a JDBC call
+            entry.getKey().cancel(false);
+            forget(entry.getKey());
+        }
+
+        for (Runnable hook : disposeHooks) {
+            try {
+                hook.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        disposeHooks.clear();
+
+        System.out.println("🧹 Dashboard closed: stopped " + stoppedTimers + " timers, cancelled " +
+                cancelledWorkers + " workers (" + totalLiveTasks.get() + " tasks still live)");
+    }
+
+    /**
+     * Timers and workers still running for this window
+     */
+    public int getLiveTaskCount() {
+        return timers.size() + workers.size();
+    }
+
+    /**
+     * Timers and workers still running across all dashboard windows
+     */
+    public static int getTotalLiveTasks() {
+        return totalLiveTasks.get();
+    }
+
+    private void forget(SwingWorker<?, ?> worker) {
+        if (workers.remove(worker) != null) {
+            totalLiveTasks.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package gui;
+
+import logic.EngineRuntime;
+import logic.StartupTimer;
+
+import javax.swing.*;
+
+/**
+ * Desktop App - Swing client of the detection engine
+ *
+ * Shows the login window first; the engine warms up behind it.
+ */
+public class DesktopApp {
+
+    // Spare connections for the login worker and the first dashboard load
+    private static final int PREWARM_CONNECTIONS = 2;
+
+    public static void launch() {
+
+        // Start GUI on Event Dispatch Thread
+        SwingUtilities.invokeLater(() -> {
+            // Set system look and feel
+            try {
+                UIManager.setLookAndFeel(
+                        UIManager.getSystemLookAndFeelClassName()
+                );
+            } catch (Exception e) {
+                System.err.println("Failed to set Look & Feel");
+            }
+
+            LoginWindow loginWindow = new LoginWindow();
+            loginWindow.setVisible(true);
+            StartupTimer.mark("login window shown");
+        });
+
+        // The window is already up, so report a dead database there
+        EngineRuntime.start(PREWARM_CONNECTIONS, true).thenAccept(ok -> {
+            if (!ok) {
+                SwingUtilities.invokeLater(DesktopApp::showConnectionError);
+            }
+        });
+    }
+
+    private static void showConnectionError() {
+        JOptionPane.showMessageDialog(
+                null,
+                "Database connection failed!\n\n" +
+                        "Please ensure:\n" +
+                        "1. MySQL is running\n" +
+                        "2. Database 'sidrs_db' exists\n" +
+                        "3. Credentials are correct",
+                "Connection Error",
+                JOptionPane.ERROR_MESSAGE
+        );
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,182 @@
+package gui;
+
+import model.SearchFilter;
+
+import javax.swing.*;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Filter Bar - Search controls shown above the dashboard tables
+ * Features: IP prefix, username, status and time range criteria
+ */
+public class FilterBar extends JPanel {
+
+    private static final String ANY_STATUS = "Any status";
+
+    private final JTextField ipField = new JTextField(10);
+    private final JTextField usernameField = new JTextField(10);
+    private final JComboBox<String> statusBox;
+    private final JTextField fromField = new JTextField(11);
+    private final JTextField toField = new JTextField(11);
+    private final JComboBox<String> orderBox = new JComboBox<>(new String[]{"Newest first", "Oldest first"});
+
+    private final JButton searchBtn = new JButton("🔍 Search");
+    private final JButton cancelBtn = new JButton("✖ Cancel");
+    private final JButton clearBtn = new JButton("Clear");
+    private final JLabel resultLabel = new JLabel(" ");
+
+    private Consumer<SearchFilter> onSearch = f -> {};
+    private Runnable onCancel = () -> {};
+    private Runnable onClear = () -> {};
+
+    public FilterBar(String[] statuses, boolean withIp, boolean withUsername, boolean withTimeRange) {
+        super(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        setBackground(UIStyles.BG_DARK);
+
+        String[] options = new String[statuses.length + 1];
+        options[0] = ANY_STATUS;
+        System.arraycopy(statuses, 0, options, 1, statuses.length);
+        statusBox = new JComboBox<>(options);
+
+        if (withIp) {
+            addField("IP prefix", ipField);
+        }
+        if (withUsername) {
+            addField("Username", usernameField);
+        }
+        add(statusBox);
+        if (withTimeRange) {
+            fromField.setToolTipText("yyyy-MM-dd [HH:mm]");
+            toField.setToolTipText("yyyy-MM-dd [HH:mm]");
+            addField("From", fromField);
+            addField("To", toField);
+            add(orderBox);
+        }
+
+        UIStyles.styleButton(searchBtn, UIStyles.PRIMARY);
+        UIStyles.styleButton(cancelBtn, UIStyles.DANGER);
+        UIStyles.styleButton(clearBtn, UIStyles.BG_INPUT);
+        cancelBtn.setEnabled(false);
+
+        resultLabel.setFont(UIStyles.FONT_SMALL);
+        resultLabel.setForeground(UIStyles.TEXT_SECONDARY);
+
+        add(searchBtn);
+        add(cancelBtn);
+        add(clearBtn);
+        add(resultLabel);
+
+        searchBtn.addActionListener(e -> fireSearch());
+        ipField.addActionListener(e -> fireSearch());
+        usernameField.addActionListener(e -> fireSearch());
+        cancelBtn.addActionListener(e -> onCancel.run());
+        clearBtn.addActionListener(e -> {
+            ipField.setText("");
+            usernameField.setText("");
+            statusBox.setSelectedIndex(0);
+            fromField.setText("");
+            toField.setText("");
+            resultLabel.setText(" ");
+            onClear.run();
+        });
+
+        // '/' jumps to the first criterion; while any text component has
+        // focus the action declines and the key is typed as usual
+        JComponent first = withIp ? ipField : withUsername ? usernameField : statusBox;
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('/'), "focusSearch");
+        getActionMap().put("focusSearch", new AbstractAction() {
+            @Override
+            public boolean accept(Object sender) {
+                return !(KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner()
+                        instanceof JTextComponent);
+            }
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                first.requestFocusInWindow();
+            }
+        });
+    }
+
+    private void addField(String label, JTextField field) {
+        JLabel lbl = new JLabel(label);
+        UIStyles.styleLabel(lbl, UIStyles.FONT_SMALL, UIStyles.TEXT_SECONDARY);
+        field.setFont(UIStyles.FONT_SMALL);
+        field.setBackground(UIStyles.BG_INPUT);
+        field.setForeground(UIStyles.TEXT_PRIMARY);
+        field.setCaretColor(UIStyles.TEXT_PRIMARY);
+        add(lbl);
+        add(field);
+    }
+
+    private void fireSearch() {
+        SearchFilter filter;
+        try {
+            filter = buildFilter();
+        } catch (IllegalArgumentException e) {
+            resultLabel.setText("⚠️ " + e.getMessage());
+            return;
+        }
+        onSearch.accept(filter);
+    }
+
+    /**
+     * Build a filter from the current field values
+     */
+    public SearchFilter buildFilter() {
+        SearchFilter filter = new SearchFilter();
+
+        String ip = ipField.getText().trim();
+        // Matched as a text prefix, so a CIDR range like 10.0.0.0/8 would find nothing
+        if (!ip.matches("[0-9a-fA-F.:]*")) {
+            throw new IllegalArgumentException("IP prefix may only contain digits, 'a'-'f', '.' and ':' (no CIDR)");
+        }
+        filter.setIpPrefix(ip);
+        filter.setUsername(usernameField.getText().trim());
+        if (statusBox.getSelectedIndex() > 0) {
+            filter.setStatus((String) statusBox.getSelectedItem());
+        }
+        filter.setFrom(parseTime(fromField.getText()));
+        filter.setTo(parseTime(toField.getText()));
+        filter.setNewestFirst(orderBox.getSelectedIndex() == 0);
+        return filter;
+    }
+
+    private static Timestamp parseTime(String text) {
+        String value = text.trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() == 10) {
+            value += " 00:00:00";
+        } else if (value.length() == 16) {
+            value += ":00";
+        }
+        try {
+            return Timestamp.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid time '" + text.trim() + "' (use yyyy-MM-dd HH:mm)");
+        }
+    }
+
+    // Listeners
+    public void setOnSearch(Consumer<SearchFilter> onSearch) { this.onSearch = onSearch; }
+    public void setOnCancel(Runnable onCancel) { this.onCancel = onCancel; }
+    public void setOnClear(Runnable onClear) { this.onClear = onClear; }
+
+    /**
+     * Toggle the controls between idle and searching state
+     */
+    public void setSearching(boolean searching) {
+        searchBtn.setEnabled(!searching);
+        cancelBtn.setEnabled(searching);
+    }
+
+    public void setResultText(String text) {
+        resultLabel.setText(text);
+    }
+}
@@ -2,6 +2,7 @@
 import dataBase.DatabaseManager;
 import logic.DetectionEngine;
 import logic.DetectionEngine.DetectionResult;
+import logic.StartupTimer;
 import model.User;
 
 import javax.swing.*;
@@ -23,7 +24,12 @@ public class LoginWindow extends JFrame {
     private JLabel attemptsLabel;
     private JPanel mainPanel;
 
-    private String currentIP;
+    // Set off the EDT once the local address lookup finishes
+    private volatile String currentIP;
+
+    // Identifies this client in login_attempts.user_agent and behavior profiles
+    private static final String USER_AGENT = "SIDRS-Desktop (" +
+            System.getProperty("os.name") + "; Java " + System.getProperty("java.version") + ")";
 
     public LoginWindow() {
         initializeWindow();
@@ -160,17 +166,35 @@ public class LoginWindow extends JFrame {
         });
     }
 
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        StartupTimer.markFirstPaint();
+    }
+
+    // The host lookup can block on DNS, so it runs off the EDT
     private void detectIP() {
-        try {
-            currentIP = InetAddress.getLocalHost().getHostAddress();
-            ipField.setText(currentIP);
-        } catch (Exception e) {
-            currentIP = "127.0.0.1";
-            ipField.setText(currentIP);
-        }
+        ipField.setText("Detecting...");
+
+        Thread lookup = new Thread(() -> {
+            String ip;
+            try {
+                ip = InetAddress.getLocalHost().getHostAddress();
+            } catch (Exception e) {
+                ip = "127.0.0.1";
+            }
 
-        // Check remaining attempts
-        updateAttemptsLabel();
+            String detected = ip;
+            SwingUtilities.invokeLater(() -> {
+                currentIP = detected;
+                ipField.setText(detected);
+
+                // Check remaining attempts
+                updateAttemptsLabel();
+            });
+        }, "sidrs-detect-ip");
+        lookup.setDaemon(true);
+        lookup.start();
     }
 
     private void updateAttemptsLabel() {
@@ -193,12 +217,13 @@ public class LoginWindow extends JFrame {
             return;
         }
 
-        // Check if IP is blocked before attempting
-        if (!DetectionEngine.canAttemptLogin(currentIP)) {
-            showStatus("⛔ Your IP is blocked. Please try later.", UIStyles.DANGER);
+        if (currentIP == null) {
+            showStatus("⏳ Still detecting your IP address...", UIStyles.WARNING);
             return;
         }
 
+        // Blocked IPs are rejected by checkBeforeAuthentication, off the EDT
+
         // Disable button during login
         loginButton.setEnabled(false);
         loginButton.setText("🔄 Authenticating...");
@@ -209,12 +234,19 @@ public class LoginWindow extends JFrame {
 
             @Override
             protected DetectionResult doInBackground() {
+                // Rate limits and blocks first, before any credential work
+                DetectionResult rejection =
+                        DetectionEngine.checkBeforeAuthentication(currentIP, username);
+                if (rejection != null) {
+                    return rejection;
+                }
+
                 // Validate credentials
                 authenticatedUser = DatabaseManager.validateUser(username, password);
                 boolean success = authenticatedUser != null;
 
                 // Analyze with detection engine
-                return DetectionEngine.analyzeAttempt(currentIP, username, success);
+                return DetectionEngine.analyzeAttempt(currentIP, username, success, USER_AGENT);
             }
 
             @Override
@@ -222,10 +254,15 @@ public class LoginWindow extends JFrame {
                 try {
                     DetectionResult result = get();
 
-                    if (result.isBlocked()) {
+                    if (result.isBlocked() || result.isAccountLocked()) {
                         showStatus(result.getMessage(), UIStyles.DANGER);
                         loginButton.setEnabled(true);
                         loginButton.setText("🔐 Login");
+                    } else if (result.isThrottled()) {
+                        showStatus("⏳ " + result.getMessage(), UIStyles.WARNING);
+                        loginButton.setEnabled(true);
+                        loginButton.setText("🔐 Login");
+                        passwordField.setText("");
                     } else if (authenticatedUser != null) {
                         showStatus("✅ Login successful! Welcome, " + authenticatedUser.getUsername(), UIStyles.SUCCESS);
 
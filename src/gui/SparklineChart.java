@@ -0,0 +1,215 @@
+package gui;
+
+import logic.AttackRateSeries;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Sparkline Chart - Live bar chart of one per-second series over the last hour
+ *
+ * The plot is kept in an off-screen image. Each tick scrolls it left by the
+ * number of columns that elapsed, redraws only the bars whose height changed
+ * and repaints just that strip. All buffers are reused until the component
+ * is resized.
+ */
+public class SparklineChart extends JComponent {
+
+    private static final int HEADER_HEIGHT = 24;
+    private static final int PADDING = 8;
+
+    private final String title;
+    private final AttackRateSeries.Series series;
+    private final Color color;
+
+    private final int[] samples = new int[AttackRateSeries.SECONDS];
+    private int[] columns = new int[0];
+    private int[] drawnHeights = new int[0];
+    private BufferedImage plot;
+    private Graphics2D plotGraphics;
+
+    private int secondsPerColumn;
+    private int columnWidth;
+    private long newestColumn = -1;
+    private int scaleMax;
+
+    private int currentRate = -1;
+    private int peakRate = -1;
+    private String headerText = "";
+
+    public SparklineChart(String title, AttackRateSeries.Series series, Color color) {
+        this.title = title;
+        this.series = series;
+        this.color = color;
+        setOpaque(true);
+        setBackground(UIStyles.BG_CARD);
+        setPreferredSize(new Dimension(600, 90));
+    }
+
+    /**
+     * Pull the latest counts and repaint whatever changed. Call on the EDT.
+     */
+    public void tick() {
+        if (!isShowing()) {
+            return;
+        }
+
+        int plotWidth = getWidth() - 2 * PADDING;
+        int plotHeight = getHeight() - HEADER_HEIGHT - PADDING;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+
+        boolean full = ensurePlot(plotWidth, plotHeight);
+        long newest = AttackRateSeries.copyInto(series, samples);
+
+        // Header: current second and peak second
+        int current = samples[samples.length - 1];
+        int peak = 0;
+        for (int v : samples) {
+            if (v > peak) peak = v;
+        }
+        if (current != currentRate || peak != peakRate) {
+            currentRate = current;
+            peakRate = peak;
+            headerText = current + "/s  ·  peak " + peak + "/s";
+            repaint(0, 0, getWidth(), HEADER_HEIGHT);
+        }
+
+        // Bucket seconds into columns aligned to absolute time, so columns
+        // only move when a whole bucket has elapsed
+        int n = columns.length;
+        long newestCol = newest / secondsPerColumn;
+        long firstCol = newestCol - (n - 1);
+        Arrays.fill(columns, 0);
+        long firstSecond = newest - (samples.length - 1);
+        for (int i = 0; i < samples.length; i++) {
+            int c = (int) ((firstSecond + i) / secondsPerColumn - firstCol);
+            if (c >= 0) {
+                columns[c] += samples[i];
+            }
+        }
+
+        int max = 1;
+        for (int v : columns) {
+            if (v > max) max = v;
+        }
+        int scale = niceCeiling(max);
+        if (scale != scaleMax) {
+            scaleMax = scale;
+            full = true;
+        }
+
+        long shift = newestColumn < 0 ? n : newestCol - newestColumn;
+        newestColumn = newestCol;
+        if (shift >= n || shift < 0) {
+            full = true;
+        } else if (shift > 0 && !full) {
+            int px = (int) shift * columnWidth;
+            plotGraphics.copyArea(px, 0, n * columnWidth - px, plotHeight, -px, 0);
+            System.arraycopy(drawnHeights, (int) shift, drawnHeights, 0, n - (int) shift);
+            Arrays.fill(drawnHeights, n - (int) shift, n, -1);
+        }
+
+        if (full) {
+            Arrays.fill(drawnHeights, -1);
+        }
+
+        int dirtyFrom = -1;
+        int dirtyTo = -1;
+        for (int c = 0; c < n; c++) {
+            int h = (int) ((long) columns[c] * plotHeight / scaleMax);
+            if (h != drawnHeights[c]) {
+                drawColumn(c, h, plotHeight);
+                drawnHeights[c] = h;
+                if (dirtyFrom < 0) dirtyFrom = c;
+                dirtyTo = c;
+            }
+        }
+
+        if (full || shift > 0) {
+            repaint(PADDING, HEADER_HEIGHT, plotWidth, plotHeight);
+        } else if (dirtyFrom >= 0) {
+            repaint(PADDING + dirtyFrom * columnWidth, HEADER_HEIGHT,
+                    (dirtyTo - dirtyFrom + 1) * columnWidth, plotHeight);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        g2.setFont(UIStyles.FONT_SMALL);
+        FontMetrics fm = g2.getFontMetrics();
+        int baseline = (HEADER_HEIGHT + fm.getAscent()) / 2;
+
+        g2.setColor(UIStyles.TEXT_SECONDARY);
+        g2.drawString(title, PADDING, baseline);
+        g2.setColor(color);
+        g2.drawString(headerText, getWidth() - PADDING - fm.stringWidth(headerText), baseline);
+
+        if (plot != null) {
+            g2.drawImage(plot, PADDING, HEADER_HEIGHT, null);
+        }
+    }
+
+    // =============================
+    // Off-screen plot
+    // =============================
+
+    /**
+     * (Re)create the image and column buffers if the size changed
+     *
+     * @return true if the plot must be redrawn from scratch
+     */
+    private boolean ensurePlot(int plotWidth, int plotHeight) {
+        if (plot != null && plot.getWidth() == plotWidth && plot.getHeight() == plotHeight) {
+            return false;
+        }
+
+        secondsPerColumn = Math.max(1, (AttackRateSeries.SECONDS + plotWidth - 1) / plotWidth);
+        int n = (AttackRateSeries.SECONDS + secondsPerColumn - 1) / secondsPerColumn;
+        columnWidth = Math.max(1, plotWidth / n);
+        columns = new int[n];
+        drawnHeights = new int[n];
+
+        if (plotGraphics != null) {
+            plotGraphics.dispose();
+        }
+        plot = new BufferedImage(plotWidth, plotHeight, BufferedImage.TYPE_INT_RGB);
+        plotGraphics = plot.createGraphics();
+        plotGraphics.setColor(UIStyles.BG_DARK);
+        plotGraphics.fillRect(0, 0, plotWidth, plotHeight);
+
+        newestColumn = -1;
+        return true;
+    }
+
+    private void drawColumn(int c, int height, int plotHeight) {
+        int x = c * columnWidth;
+        plotGraphics.setColor(UIStyles.BG_DARK);
+        plotGraphics.fillRect(x, 0, columnWidth, plotHeight - height);
+        if (height > 0) {
+            plotGraphics.setColor(color);
+            plotGraphics.fillRect(x, plotHeight - height, columnWidth, height);
+        }
+    }
+
+    // 1, 2, 5, 10, 20, 50, ... so the scale doesn't change every tick
+    private static int niceCeiling(int value) {
+        int step = 1;
+        while (true) {
+            if (value <= step) return step;
+            if (value <= step * 2) return step * 2;
+            if (value <= step * 5) return step * 5;
+            step *= 10;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package gui;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Status Value - Table cell value for status columns, with the color and
+ * font it is painted in worked out once instead of on every paint
+ *
+ * toString() is the database value, so row filters and sorting keep working
+ * on the text.
+ */
+public enum StatusValue {
+    SUCCESS, FAILED, BLOCKED,
+    ACTIVE, LOCKED, AUTO_LOCKED, SUSPENDED;
+
+    private static final Map<String, StatusValue> BY_NAME = new HashMap<>();
+
+    static {
+        for (StatusValue value : values()) {
+            BY_NAME.put(value.name(), value);
+        }
+    }
+
+    private final Color color = UIStyles.getStatusColor(name());
+
+    public Color getColor() {
+        return color;
+    }
+
+    public Font getFont() {
+        return UIStyles.FONT_BUTTON;
+    }
+
+    /**
+     * Cell value for a status string: the matching constant, or the string
+     * itself if it is not a known status
+     */
+    public static Object cellValue(String status) {
+        if (status == null) return null;
+        StatusValue value = BY_NAME.get(status);
+        return value != null ? value : status;
+    }
+}
@@ -0,0 +1,48 @@
+package gui;
+
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Time Value - Table cell value for timestamp columns, formatted once when
+ * the row is built so painting only reads a cached string
+ */
+public final class TimeValue implements Comparable<TimeValue> {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final long millis;
+    private final String text;
+
+    private TimeValue(Timestamp time) {
+        this.millis = time.getTime();
+        this.text = FORMAT.format(time.toLocalDateTime());
+    }
+
+    /**
+     * @return the cell value, or null for a null timestamp
+     */
+    public static TimeValue of(Timestamp time) {
+        return time != null ? new TimeValue(time) : null;
+    }
+
+    @Override
+    public int compareTo(TimeValue other) {
+        return Long.compare(millis, other.millis);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimeValue && ((TimeValue) other).millis == millis;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(millis);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -149,6 +149,7 @@ public class UIStyles {
             case "FAILED":
             case "BLOCKED":
             case "LOCKED":
+            case "AUTO_LOCKED":
             case "SUSPENDED":
                 return DANGER;
             case "ADMIN":
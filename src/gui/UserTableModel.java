@@ -0,0 +1,98 @@
+package gui;
+
+import logic.UserDirectory;
+import model.User;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+/**
+ * User Table Model - Users tab bound to UserDirectory
+ *
+ * Cell values are built once per row when the row changes, so painting
+ * only reads them. A status change repaints just the changed rows.
+ */
+public class UserTableModel extends AbstractTableModel implements UserDirectory.Listener {
+
+    private static final String[] COLUMNS = {"ID", "Username", "Role", "Status", "Created At", "Last Login"};
+
+    // Only touched on the EDT
+    private List<User> users = List.of();
+    private Object[][] cells = new Object[0][];
+
+    /**
+     * Start following the directory; call {@link #detach} when done
+     */
+    public void attach() {
+        UserDirectory.addListener(this);
+        reload(UserDirectory.getUsers());
+    }
+
+    public void detach() {
+        UserDirectory.removeListener(this);
+    }
+
+    public User getUserAt(int row) {
+        return users.get(row);
+    }
+
+    @Override
+    public void usersChanged(List<User> users, int[] changedRows) {
+        SwingUtilities.invokeLater(() -> {
+            if (changedRows == null || users.size() != cells.length) {
+                reload(users);
+                return;
+            }
+            this.users = users;
+            for (int row : changedRows) {
+                cells[row] = cellsFor(users.get(row));
+                fireTableRowsUpdated(row, row);
+            }
+        });
+    }
+
+    private void reload(List<User> users) {
+        Object[][] fresh = new Object[users.size()][];
+        for (int row = 0; row < fresh.length; row++) {
+            fresh[row] = cellsFor(users.get(row));
+        }
+        this.users = users;
+        this.cells = fresh;
+        fireTableDataChanged();
+    }
+
+    private static Object[] cellsFor(User user) {
+        return new Object[]{
+                user.getId(),
+                user.getUsername(),
+                user.getRole(),
+                StatusValue.cellValue(user.getStatus()),
+                TimeValue.of(user.getCreatedAt()),
+                TimeValue.of(user.getLastLogin())
+        };
+    }
+
+    // ===============================
+    // TableModel
+    // ===============================
+    @Override
+    public int getRowCount() {
+        return cells.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return cells[row][column];
+    }
+}
@@ -0,0 +1,188 @@
+package logic;
+
+import cluster.ClusterNode;
+import database.DatabaseManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account Lockout - Temporary per-username locks against distributed attacks
+ *
+ * Failures are counted per username (from any IP) alongside the per-IP
+ * windows. Crossing the threshold locks the account in memory straight
+ * away; the AUTO_LOCKED / ACTIVE status is written back to users.status
+ * in batches by a background flusher, and expired locks are released the
+ * same way. AUTO_LOCKED is only ever set on ACTIVE users and only ever
+ * reverted to ACTIVE, so a LOCKED set by an admin is never undone here.
+ * The row also records when the lock expires, and every node releases
+ * expired AUTO_LOCKED rows from the database at startup and periodically,
+ * so a lock outlives neither a restart nor the node that set it.
+ */
+public class AccountLockout {
+
+    private static final int MAX_USER_FAILURES = 8;
+    private static final int TIME_WINDOW_MINUTES = 5;
+    private static final int LOCKOUT_DURATION_MINUTES = 15;
+    private static final long FLUSH_INTERVAL_SECONDS = 2;
+    private static final long RELEASE_INTERVAL_MS = 30_000;
+
+    // username (lower case) -> unlock time in epoch millis
+    private static final Map<String, Long> locked = new ConcurrentHashMap<>();
+
+    // Status changes waiting to be written; a later change for a user replaces an earlier one
+    private static final Map<String, String> pendingStatus = new ConcurrentHashMap<>();
+
+    // Only touched by the flusher thread; EngineRuntime does the startup release
+    private static long lastRelease = System.currentTimeMillis();
+
+    private static final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "sidrs-account-lockout");
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        flusher.scheduleWithFixedDelay(AccountLockout::flush,
+                FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Check whether the account is currently locked by detection
+     */
+    public static boolean isLocked(String username) {
+        if (username == null) return false;
+
+        Long unlockAt = locked.get(username.toLowerCase());
+        return unlockAt != null && unlockAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Record a failed login for the username
+     *
+     * @return true if this failure caused the account to be locked
+     */
+    public static boolean recordFailure(String username) {
+        if (username == null || username.isEmpty()) return false;
+
+        int failures = FailureTracker.recordUserFailure(username, TIME_WINDOW_MINUTES);
+        if (failures < MAX_USER_FAILURES || isLocked(username)) {
+            return false;
+        }
+
+        String key = username.toLowerCase();
+        locked.put(key, System.currentTimeMillis() + LOCKOUT_DURATION_MINUTES * 60_000L);
+        pendingStatus.put(key, "AUTO_LOCKED");
+        System.out.println("🔒 Account locked: " + username + " after " + failures +
+                " failures in " + TIME_WINDOW_MINUTES + " minutes");
+        return true;
+    }
+
+    /**
+     * Release a lock early, e.g. when an admin re-activates the user.
+     * Other cluster nodes are told to release it and forget the failures too,
+     * otherwise their replicated counts would lock the account again.
+     */
+    public static void unlock(String username) {
+        release(username);
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            node.publishUnlock(username);
+        }
+    }
+
+    /**
+     * Apply an unlock made on another node
+     */
+    public static void unlockFromPeer(String username) {
+        release(username);
+    }
+
+    private static void release(String username) {
+        String key = username.toLowerCase();
+        locked.remove(key);
+        pendingStatus.remove(key);
+        FailureTracker.resetUser(username);
+    }
+
+    public static int getLockoutMinutes() {
+        return LOCKOUT_DURATION_MINUTES;
+    }
+
+    public static int lockedCount() {
+        return locked.size();
+    }
+
+    /**
+     * Write pending status changes now and wait for them, e.g. before
+     * a tool cleans up what it wrote
+     */
+    public static void flushNow() {
+        try {
+            flusher.submit(AccountLockout::flush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Release expired locks and write pending status changes in one batch
+     */
+    private static void flush() {
+        try {
+            long now = System.currentTimeMillis();
+            locked.entrySet().removeIf(entry -> {
+                if (entry.getValue() > now) return false;
+                pendingStatus.put(entry.getKey(), "ACTIVE");
+                return true;
+            });
+
+            if (now - lastRelease >= RELEASE_INTERVAL_MS) {
+                releaseExpired();
+                lastRelease = now;
+            }
+
+            if (pendingStatus.isEmpty()) return;
+
+            Map<String, String> batch = new HashMap<>();
+            for (String username : pendingStatus.keySet()) {
+                String status = pendingStatus.remove(username);
+                if (status != null) batch.put(username, status);
+            }
+
+            if (DatabaseManager.applyLockoutStatus(batch, LOCKOUT_DURATION_MINUTES)) {
+                UserDirectory.applyLockoutStatus(batch);
+            } else {
+                // Retry next time unless a newer change has been queued meanwhile
+                batch.forEach(pendingStatus::putIfAbsent);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Release expired locks stored in the database, including ones this
+     * process never saw (set before a restart or by another node)
+     */
+    public static void releaseExpired() {
+        List<String> released = DatabaseManager.releaseExpiredLockouts();
+        if (released == null || released.isEmpty()) return;
+
+        Map<String, String> changes = new HashMap<>();
+        for (String username : released) {
+            changes.put(username, "ACTIVE");
+        }
+        UserDirectory.applyLockoutStatus(changes);
+        System.out.println("🔓 Released " + released.size() + " expired account lock(s)");
+    }
+}
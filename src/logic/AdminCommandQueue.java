@@ -0,0 +1,55 @@
+package logic;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admin Command Queue - Runs admin actions (block, unblock, lock...) off the
+ * UI thread
+ *
+ * Commands run one at a time in submission order, so a block followed by an
+ * unblock of the same IP can never be applied the other way round.
+ */
+public class AdminCommandQueue {
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sidrs-admin-commands");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Queue a command
+     *
+     * @param description short text for the log, e.g. "unblock 3 IPs"
+     * @param action      returns true on success
+     * @return completes with the action's result, or false if it threw
+     */
+    public static CompletableFuture<Boolean> submit(String description, Supplier<Boolean> action) {
+        pending.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean ok = action.get();
+                System.out.println((ok ? "✅ Admin command done: " : "❌ Admin command failed: ") + description);
+                return ok;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                pending.decrementAndGet();
+            }
+        }, executor);
+    }
+
+    /**
+     * Commands queued or running
+     */
+    public static int pendingCount() {
+        return pending.get();
+    }
+}
@@ -0,0 +1,109 @@
+package logic;
+
+import cluster.ClusterNode;
+import database.DatabaseManager;
+import model.BlockedIP;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ASN Blocker - Blocks every range of an autonomous system once enough
+ * distinct addresses in it have been blocked for attacks
+ *
+ * Off unless -Dsidrs.geo.asnBlockThreshold is set and a geo database is
+ * loaded. Other settings: sidrs.geo.asnBlockWindowMinutes (60),
+ * sidrs.geo.asnBlockMinutes (1440) and sidrs.geo.asnBlockMaxPrefixes (256;
+ * larger networks are only reported, never blocked).
+ */
+public class AsnBlocker {
+
+    private static final int THRESHOLD = Integer.getInteger("sidrs.geo.asnBlockThreshold", 0);
+    private static final long WINDOW_MS = Integer.getInteger("sidrs.geo.asnBlockWindowMinutes", 60) * 60_000L;
+    private static final int BLOCK_MINUTES = Integer.getInteger("sidrs.geo.asnBlockMinutes", 24 * 60);
+    private static final int MAX_PREFIXES = Integer.getInteger("sidrs.geo.asnBlockMaxPrefixes", 256);
+
+    // ASN -> hostile address -> when it was last blocked
+    private static final Map<Integer, Map<String, Long>> hostile = new ConcurrentHashMap<>();
+
+    // ASN -> when its block runs out; it is not re-triggered before then
+    private static final Map<Integer, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    // Writing a few hundred ranges must not hold up the login that triggered it
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sidrs-asn-block");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static boolean isEnabled() {
+        return THRESHOLD > 0 && GeoDatabase.isLoaded();
+    }
+
+    /**
+     * Note an address blocked for attacking; may block its whole ASN
+     */
+    public static void recordHostile(String ipAddress, int asn) {
+        if (asn == 0 || !isEnabled()) return;
+
+        long now = System.currentTimeMillis();
+        Long until = blockedUntil.get(asn);
+        if (until != null && until > now) return;
+
+        Map<String, Long> addresses = hostile.computeIfAbsent(asn, k -> new ConcurrentHashMap<>());
+        addresses.put(ipAddress, now);
+        addresses.values().removeIf(seen -> now - seen > WINDOW_MS);
+
+        if (addresses.size() >= THRESHOLD) {
+            long expiresAt = now + BLOCK_MINUTES * 60_000L;
+            if (until == null ? blockedUntil.putIfAbsent(asn, expiresAt) == null
+                    : blockedUntil.replace(asn, until, expiresAt)) {
+                int distinct = addresses.size();
+                hostile.remove(asn);
+                executor.execute(() -> blockAsn(asn, distinct, expiresAt));
+            }
+        }
+    }
+
+    private static void blockAsn(int asn, int distinct, long expiresAt) {
+        try {
+            List<String> prefixes = GeoDatabase.prefixesOf(asn);
+            if (prefixes.isEmpty()) return;
+            if (prefixes.size() > MAX_PREFIXES) {
+                System.out.println("⚠️ AS" + asn + " has " + distinct + " hostile IPs but " +
+                        prefixes.size() + " prefixes; not blocking it");
+                return;
+            }
+
+            String reason = "AS" + asn + ": " + distinct + " hostile IPs in " + WINDOW_MS / 60_000 + " minutes";
+            Timestamp expiry = new Timestamp(expiresAt);
+            List<BlockedIP> batch = new ArrayList<>(prefixes.size());
+            for (String prefix : prefixes) {
+                BlockedIP entry = new BlockedIP(prefix, reason);
+                entry.setExpiryTime(expiry);
+                batch.add(entry);
+            }
+
+            if (DatabaseManager.upsertBlockedIPs(batch) < 0) {
+                // Let a later attack retry
+                blockedUntil.remove(asn);
+                return;
+            }
+
+            BlockIndex.addAll(prefixes, expiresAt);
+            ClusterNode node = ClusterNode.get();
+            if (node != null) {
+                prefixes.forEach(prefix -> node.publishBlock(prefix, expiresAt));
+            }
+            System.out.println("🔒 AS" + asn + " blocked: " + prefixes.size() + " prefixes for " +
+                    BLOCK_MINUTES + " min");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Attack Rate Series - Per-second counts of login activity for the last hour
+ *
+ * One fixed ring buffer per series, indexed by epoch second. Seconds that
+ * passed without events are zeroed lazily on the next record or read, so
+ * nothing is allocated after class load.
+ */
+public class AttackRateSeries {
+
+    public static final int SECONDS = 3600;
+
+    public enum Series {
+        /** Every login attempt that reached the detection engine */
+        ATTEMPTS,
+        /** Failed password checks */
+        FAILURES,
+        /** Attempts turned away by an IP block, throttle or account lock */
+        BLOCKS
+    }
+
+    private static final int[][] counts = new int[Series.values().length][SECONDS];
+    private static final long[] lastSecond = new long[Series.values().length];
+    private static final long[] totals = new long[Series.values().length];
+
+    public static void record(Series series) {
+        long now = currentSecond();
+        synchronized (counts) {
+            int s = series.ordinal();
+            advance(s, now);
+            counts[s][(int) (now % SECONDS)]++;
+            totals[s]++;
+        }
+    }
+
+    /**
+     * Events recorded since startup
+     */
+    public static long total(Series series) {
+        synchronized (counts) {
+            return totals[series.ordinal()];
+        }
+    }
+
+    /**
+     * Copy the last hour into dest, oldest first, so dest[SECONDS - 1] is
+     * the current (still filling) second
+     *
+     * @return the epoch second of the newest sample
+     */
+    public static long copyInto(Series series, int[] dest) {
+        long now = currentSecond();
+        synchronized (counts) {
+            int s = series.ordinal();
+            advance(s, now);
+
+            int head = (int) ((now + 1) % SECONDS);
+            int tail = SECONDS - head;
+            System.arraycopy(counts[s], head, dest, 0, tail);
+            System.arraycopy(counts[s], 0, dest, tail, head);
+        }
+        return now;
+    }
+
+    public static long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    // Zero every slot between the last touched second and now
+    private static void advance(int s, long now) {
+        long last = lastSecond[s];
+        if (now <= last) {
+            return;
+        }
+        int[] ring = counts[s];
+        if (now - last >= SECONDS) {
+            Arrays.fill(ring, 0);
+        } else {
+            for (long sec = last + 1; sec <= now; sec++) {
+                ring[(int) (sec % SECONDS)] = 0;
+            }
+        }
+        lastSecond[s] = now;
+    }
+}
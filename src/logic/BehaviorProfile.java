@@ -0,0 +1,120 @@
+package logic;
+
+/**
+ * Behavior Profile - Compact, fixed-size summary of one user's logins
+ *
+ * Tracks the most frequent addresses, /24 subnets and user agents
+ * (a few slots each, least-used entry replaced) and an hour-of-day
+ * histogram. Every update is O(1) and the profile never grows.
+ * Counts are halved periodically so old habits fade.
+ */
+public class BehaviorProfile {
+
+    private static final int IP_SLOTS = 8;
+    private static final int SUBNET_SLOTS = 8;
+    private static final int AGENT_SLOTS = 4;
+    private static final int DECAY_THRESHOLD = 512;
+
+    // Logins needed before the profile is trusted to score anything
+    private static final int MIN_EVENTS = 5;
+
+    private final int[] ips = new int[IP_SLOTS];
+    private final int[] ipCounts = new int[IP_SLOTS];
+    private final int[] subnets = new int[SUBNET_SLOTS];
+    private final int[] subnetCounts = new int[SUBNET_SLOTS];
+    private final int[] agents = new int[AGENT_SLOTS];
+    private final int[] agentCounts = new int[AGENT_SLOTS];
+    private final int[] hours = new int[24];
+    private int events;
+
+    /**
+     * Score how unusual a login looks against this profile.
+     *
+     * @return 0 (typical) to 1 (nothing matches)
+     */
+    public synchronized double score(int ip, int subnet, int agent, int hour) {
+        if (events < MIN_EVENTS) {
+            return 0;
+        }
+
+        double score = 0;
+
+        // New address: mildly unusual; new network as well: much more so
+        if (indexOf(ips, ipCounts, ip) < 0) {
+            score += 0.25;
+            if (indexOf(subnets, subnetCounts, subnet) < 0) {
+                score += 0.25;
+            }
+        }
+
+        // Hour rarity relative to a uniform spread (Laplace smoothed)
+        double share = (hours[hour] + 1.0) / (events + 24.0) * 24.0;
+        score += 0.3 * Math.max(0, 1 - share);
+
+        if (agent != 0 && indexOf(agents, agentCounts, agent) < 0) {
+            score += 0.2;
+        }
+
+        return Math.min(1, score);
+    }
+
+    /**
+     * Fold a successful login into the profile
+     */
+    public synchronized void learn(int ip, int subnet, int agent, int hour) {
+        touch(ips, ipCounts, ip);
+        touch(subnets, subnetCounts, subnet);
+        if (agent != 0) {
+            touch(agents, agentCounts, agent);
+        }
+        hours[hour]++;
+
+        if (++events >= DECAY_THRESHOLD) {
+            decay();
+        }
+    }
+
+    public synchronized int getEvents() {
+        return events;
+    }
+
+    private static int indexOf(int[] keys, int[] counts, int key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] > 0 && keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Count the key, replacing the least-used slot if it is new
+     */
+    private static void touch(int[] keys, int[] counts, int key) {
+        int victim = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] > 0 && keys[i] == key) {
+                counts[i]++;
+                return;
+            }
+            if (counts[i] < counts[victim]) victim = i;
+        }
+        keys[victim] = key;
+        counts[victim] = 1;
+    }
+
+    private void decay() {
+        events = 0;
+        for (int i = 0; i < 24; i++) {
+            hours[i] >>= 1;
+            events += hours[i];
+        }
+        halve(ipCounts);
+        halve(subnetCounts);
+        halve(agentCounts);
+    }
+
+    private static void halve(int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] >>= 1;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package logic;
+
+import logic.DetectionEngine.ThreatLevel;
+
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Behavior Profiler - Anomaly scoring for successful logins
+ *
+ * Keeps a BehaviorProfile per user in a bounded LRU map, scores each
+ * successful login against it and then learns from it. Everything is in
+ * memory; no database round-trips.
+ */
+public class BehaviorProfiler {
+
+    private static final int MAX_PROFILES = 100_000;
+
+    private static final double LOW_THRESHOLD = 0.3;
+    private static final double MEDIUM_THRESHOLD = 0.5;
+    private static final double HIGH_THRESHOLD = 0.75;
+
+    private static final Map<String, BehaviorProfile> profiles =
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BehaviorProfile> eldest) {
+                    return size() > MAX_PROFILES;
+                }
+            };
+
+    /**
+     * Score a successful login, then add it to the user's profile
+     *
+     * @return anomaly score from 0 (typical) to 1 (nothing matches)
+     */
+    public static double scoreAndLearn(String username, String ipAddress, String userAgent) {
+        BehaviorProfile profile;
+        synchronized (profiles) {
+            profile = profiles.computeIfAbsent(username.toLowerCase(), u -> new BehaviorProfile());
+        }
+
+        long parsed = IPv4.parse(ipAddress);
+        int ip = parsed >= 0 ? (int) parsed : ipAddress.hashCode();
+        int subnet = parsed >= 0 ? (int) (parsed >>> 8) : subnetHash(ipAddress);
+        int agent = userAgent == null ? 0 : userAgent.hashCode() | 1;
+        int hour = LocalTime.now().getHour();
+
+        double score = profile.score(ip, subnet, agent, hour);
+        profile.learn(ip, subnet, agent, hour);
+        return score;
+    }
+
+    public static ThreatLevel toThreatLevel(double score) {
+        if (score >= HIGH_THRESHOLD) return ThreatLevel.HIGH;
+        if (score >= MEDIUM_THRESHOLD) return ThreatLevel.MEDIUM;
+        if (score >= LOW_THRESHOLD) return ThreatLevel.LOW;
+        return ThreatLevel.NONE;
+    }
+
+    public static int profileCount() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    /**
+     * Non-IPv4 addresses: hash everything before the last ':' as the "subnet"
+     */
+    private static int subnetHash(String ipAddress) {
+        int cut = ipAddress.lastIndexOf(':');
+        return (cut > 0 ? ipAddress.substring(0, cut) : ipAddress).hashCode();
+    }
+}
@@ -0,0 +1,252 @@
+package logic;
+
+import database.CancelToken;
+import database.DatabaseManager;
+import model.BlockedIP;
+import model.SearchFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Block Index - In-memory mirror of blocked_ips for fast lookups
+ *
+ * Covers single addresses and CIDR ranges. Non-IPv4 entries are kept as
+ * exact strings. Rebuilt in bulk from the database and kept current by
+ * IPBlocker on each block/unblock.
+ */
+public class BlockIndex {
+
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static IPPrefixSet ipv4 = new IPPrefixSet();
+    private static Map<String, Long> other = new ConcurrentHashMap<>();
+    private static volatile boolean loaded;
+    private static volatile boolean lastRebuildFailed;
+
+    // Change.expiresAt of a remove
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    // Changes made while a rebuild streams the table, replayed onto the new
+    // index before it is swapped in; null when no rebuild is running.
+    // Guarded by the write lock.
+    private static List<Change> changesDuringRebuild;
+
+    /**
+     * True once the index has been filled from the database at least once
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * True if the index is loaded and its last rebuild succeeded. A stale
+     * index still holds every block it knew of, but may miss blocks written
+     * by others since, so callers should also ask the database.
+     */
+    public static boolean isCurrent() {
+        return loaded && !lastRebuildFailed;
+    }
+
+    /**
+     * Check whether the address is covered by a live block
+     */
+    public static boolean isBlocked(String ipAddress) {
+        long now = System.currentTimeMillis();
+        long ip = IPv4.parse(ipAddress);
+
+        lock.readLock().lock();
+        try {
+            if (ip >= 0) {
+                return ipv4.contains((int) ip, now);
+            }
+            Long expiry = other.get(ipAddress);
+            return expiry != null && expiry > now;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of addresses and ranges in the index (expired entries included
+     * until the next rebuild)
+     */
+    public static int size() {
+        lock.readLock().lock();
+        try {
+            return ipv4.size() + other.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add an address or CIDR range
+     *
+     * @param expiresAt epoch millis, or IPPrefixSet.PERMANENT
+     */
+    public static void add(String ipOrCidr, long expiresAt) {
+        lock.writeLock().lock();
+        try {
+            addTo(ipv4, other, ipOrCidr, expiresAt);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new Change(ipOrCidr, expiresAt));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add several entries under one lock, so lookups see all or none of them
+     */
+    public static void addAll(Collection<String> ipsOrCidrs, long expiresAt) {
+        lock.writeLock().lock();
+        try {
+            for (String ipOrCidr : ipsOrCidrs) {
+                add(ipOrCidr, expiresAt);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static void remove(String ipOrCidr) {
+        lock.writeLock().lock();
+        try {
+            removeFrom(ipv4, other, ipOrCidr);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new Change(ipOrCidr, REMOVED));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove several entries under one lock
+     */
+    public static void removeAll(Collection<String> ipsOrCidrs) {
+        lock.writeLock().lock();
+        try {
+            for (String ipOrCidr : ipsOrCidrs) {
+                remove(ipOrCidr);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reload the whole index from blocked_ips. The new index is built off to
+     * the side and swapped in at once, so lookups never see a partial load.
+     * Adds and removes made meanwhile are replayed onto it before the swap.
+     * If the query fails the current index is kept and marked stale (see
+     * {@link #isCurrent}).
+     *
+     * @return number of live entries loaded, or -1 if the query failed
+     */
+    public static synchronized int rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long now = System.currentTimeMillis();
+        IPPrefixSet freshIPv4 = new IPPrefixSet(Math.max(1024,
+                (int) Math.min(1 << 24, DatabaseManager.estimateRowCount("blocked_ips"))));
+        Map<String, Long> freshOther = new ConcurrentHashMap<>();
+        SearchFilter activeOnly = new SearchFilter();
+        activeOnly.setStatus("ACTIVE");
+
+        int streamed = DatabaseManager.streamBlockedIPs(activeOnly, Integer.MAX_VALUE, new CancelToken(), blocked -> {
+            long expiresAt = expiryOf(blocked);
+            if (expiresAt <= now) return true;
+
+            addTo(freshIPv4, freshOther, blocked.getIpAddress(), expiresAt);
+            return true;
+        });
+
+        int size;
+        lock.writeLock().lock();
+        try {
+            List<Change> changes = changesDuringRebuild;
+            changesDuringRebuild = null;
+
+            if (streamed < 0) {
+                // The changes are already in the live index
+                lastRebuildFailed = true;
+                System.err.println("⚠️ Block index rebuild failed; keeping the current " +
+                        (ipv4.size() + other.size()) + " entries");
+                return -1;
+            }
+
+            for (Change change : changes) {
+                if (change.expiresAt == REMOVED) {
+                    removeFrom(freshIPv4, freshOther, change.ipOrCidr);
+                } else {
+                    addTo(freshIPv4, freshOther, change.ipOrCidr, change.expiresAt);
+                }
+            }
+            ipv4 = freshIPv4;
+            other = freshOther;
+            loaded = true;
+            lastRebuildFailed = false;
+            size = freshIPv4.size() + freshOther.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("🗂️ Block index rebuilt: " + size + " entries");
+        return size;
+    }
+
+    private static void addTo(IPPrefixSet set, Map<String, Long> exact, String ipOrCidr, long expiresAt) {
+        long cidr = IPv4.parseCidr(ipOrCidr);
+        if (cidr >= 0) {
+            set.add(IPv4.network(cidr), IPv4.prefixLength(cidr), expiresAt);
+        } else {
+            exact.merge(ipOrCidr, expiresAt, Math::max);
+        }
+    }
+
+    private static void removeFrom(IPPrefixSet set, Map<String, Long> exact, String ipOrCidr) {
+        long cidr = IPv4.parseCidr(ipOrCidr);
+        if (cidr >= 0) {
+            set.remove(IPv4.network(cidr), IPv4.prefixLength(cidr));
+        } else {
+            exact.remove(ipOrCidr);
+        }
+    }
+
+    /**
+     * Expiry of a blocked_ips row in epoch millis; 0 when it never blocks
+     */
+    public static long expiryOf(BlockedIP blocked) {
+        if (blocked.isPermanent()) return IPPrefixSet.PERMANENT;
+        if (blocked.getExpiryTime() == null) return 0;
+        return blocked.getExpiryTime().getTime();
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * One add (with its expiry) or remove (expiresAt == REMOVED)
+     */
+    private static final class Change {
+        final String ipOrCidr;
+        final long expiresAt;
+
+        Change(String ipOrCidr, long expiresAt) {
+            this.ipOrCidr = ipOrCidr;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
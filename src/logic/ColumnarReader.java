@@ -0,0 +1,303 @@
+package logic;
+
+import logic.ColumnarWriter.ColumnType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Columnar Reader - Reads files written by {@link ColumnarWriter}
+ *
+ * Decodes one row group at a time and hands out rows in order, so memory
+ * use is bounded like the writer's. {@link #open} also accepts the gzipped
+ * files DataExporter and RetentionManager write, and {@link #main} dumps a
+ * file to CSV in the same layout as a CSV export.
+ */
+public class ColumnarReader implements Closeable {
+
+    private final DataInputStream in;
+    private final String[] names;
+    private final ColumnType[] types;
+
+    // Current row group, one encoded column each
+    private final byte[][] columns;
+    private final int[] positions;
+    private final long[] previous;
+    // Per column; null for columns that aren't STRING
+    private final List<List<String>> dictionaries;
+    private int rowsLeftInGroup;
+    private boolean finished;
+
+    // Current row
+    private final long[] longs;
+    private final String[] strings;
+    private final boolean[] nulls;
+
+    public ColumnarReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(input);
+
+        byte[] magic = new byte[ColumnarWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarWriter.MAGIC)) {
+            throw new IOException("not a .sidrscol file");
+        }
+        int version = in.readInt();
+        if (version != ColumnarWriter.FORMAT_VERSION) {
+            throw new IOException("unsupported .sidrscol version " + version);
+        }
+
+        int count = in.readInt();
+        names = new String[count];
+        types = new ColumnType[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = in.readUTF();
+            int type = in.readUnsignedByte();
+            if (type >= ColumnType.values().length) {
+                throw new IOException("unknown column type " + type + " for " + names[i]);
+            }
+            types[i] = ColumnType.values()[type];
+        }
+
+        columns = new byte[count][];
+        positions = new int[count];
+        previous = new long[count];
+        dictionaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dictionaries.add(types[i] == ColumnType.STRING ? new ArrayList<>() : null);
+        }
+        longs = new long[count];
+        strings = new String[count];
+        nulls = new boolean[count];
+    }
+
+    /**
+     * Open a file, gunzipping it if it is compressed
+     */
+    public static ColumnarReader open(File file) throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(file), 256 * 1024);
+        try {
+            input.mark(2);
+            boolean gzipped = input.read() == 0x1f && input.read() == 0x8b;
+            input.reset();
+            return new ColumnarReader(gzipped ? new GZIPInputStream(input, 256 * 1024) : input);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    public String[] getNames() { return names.clone(); }
+    public ColumnType[] getTypes() { return types.clone(); }
+
+    /**
+     * Move to the next row
+     *
+     * @return false at the end of the file
+     */
+    public boolean next() throws IOException {
+        if (rowsLeftInGroup == 0 && !readGroup()) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            decode(i);
+        }
+        rowsLeftInGroup--;
+        return true;
+    }
+
+    // =============================
+    // Column values of the current row
+    // =============================
+
+    public boolean isNull(int column) {
+        return nulls[column];
+    }
+
+    public long getInt(int column) {
+        return longs[column];
+    }
+
+    /**
+     * @return the timestamp, or null
+     */
+    public Timestamp getTime(int column) {
+        return nulls[column] ? null : new Timestamp(longs[column]);
+    }
+
+    public String getString(int column) {
+        return strings[column];
+    }
+
+    public boolean getBool(int column) {
+        return longs[column] != 0;
+    }
+
+    private boolean readGroup() throws IOException {
+        if (finished) return false;
+
+        int rows = in.readInt();
+        if (rows == 0) {
+            finished = true;
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            int length = in.readInt();
+            if (columns[i] == null || columns[i].length < length) {
+                columns[i] = new byte[length];
+            }
+            in.readFully(columns[i], 0, length);
+            positions[i] = 0;
+            previous[i] = 0;
+            if (dictionaries.get(i) != null) {
+                dictionaries.get(i).clear();
+            }
+        }
+        rowsLeftInGroup = rows;
+        return true;
+    }
+
+    // Mirrors the ColumnarWriter setters
+    private void decode(int column) throws IOException {
+        nulls[column] = false;
+        strings[column] = null;
+
+        switch (types[column]) {
+            case INT: {
+                longs[column] = previous[column] + unZigZag(readVarLong(column));
+                previous[column] = longs[column];
+                break;
+            }
+            case TIME: {
+                long value = readVarLong(column);
+                if (value == 0) {
+                    nulls[column] = true;
+                    break;
+                }
+                longs[column] = previous[column] + unZigZag(value - 1);
+                previous[column] = longs[column];
+                break;
+            }
+            case STRING: {
+                long value = readVarLong(column);
+                List<String> dictionary = dictionaries.get(column);
+                if (value == 0) {
+                    nulls[column] = true;
+                } else if (value == 1) {
+                    int length = (int) readVarLong(column);
+                    check(column, length);
+                    strings[column] = new String(columns[column], positions[column], length, StandardCharsets.UTF_8);
+                    positions[column] += length;
+                    if (dictionary.size() < ColumnarWriter.MAX_DICTIONARY_SIZE) {
+                        dictionary.add(strings[column]);
+                    }
+                } else {
+                    long index = value - 2;
+                    if (index >= dictionary.size()) {
+                        throw new IOException("bad dictionary index in column " + names[column]);
+                    }
+                    strings[column] = dictionary.get((int) index);
+                }
+                break;
+            }
+            case BOOL: {
+                check(column, 1);
+                longs[column] = columns[column][positions[column]++];
+                break;
+            }
+        }
+    }
+
+    private long readVarLong(int column) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            check(column, 1);
+            byte b = columns[column][positions[column]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint in column " + names[column]);
+    }
+
+    private void check(int column, int bytes) throws IOException {
+        if (positions[column] + bytes > columns[column].length) {
+            throw new IOException("truncated column " + names[column]);
+        }
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // =============================
+    // CSV dump
+    // =============================
+
+    /**
+     * Write every remaining row as CSV, header first
+     *
+     * @return rows written
+     */
+    public long writeCsv(Writer out) throws IOException {
+        out.write(String.join(",", names));
+        out.write('\n');
+
+        long rows = 0;
+        while (next()) {
+            for (int i = 0; i < types.length; i++) {
+                if (i > 0) out.write(',');
+                if (isNull(i)) continue;
+                switch (types[i]) {
+                    case INT: out.write(String.valueOf(getInt(i))); break;
+                    case TIME: out.write(getTime(i).toString()); break;
+                    case BOOL: out.write(getBool(i) ? "true" : "false"); break;
+                    default: csvField(out, getString(i));
+                }
+            }
+            out.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private static void csvField(Writer out, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Usage: ColumnarReader input.sidrscol [output.csv]  (CSV to stdout without an output)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: ColumnarReader <input.sidrscol> [output.csv]");
+            return;
+        }
+        try (ColumnarReader reader = open(new File(args[0]));
+             Writer out = new BufferedWriter(args.length == 2
+                     ? new OutputStreamWriter(new FileOutputStream(args[1]), StandardCharsets.UTF_8)
+                     : new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            long rows = reader.writeCsv(out);
+            if (args.length == 2) {
+                System.out.println("📤 Wrote " + rows + " rows to " + args[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package logic;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar Writer - Compact column-oriented binary file format for exports
+ *
+ * Rows are buffered into fixed-size row groups. Each group is written column
+ * by column, so similar values sit next to each other and compress well:
+ * <ul>
+ *   <li>INT and TIME columns are delta + zig-zag varint encoded</li>
+ *   <li>STRING columns are dictionary encoded per row group</li>
+ *   <li>BOOL columns take one byte per row</li>
+ * </ul>
+ * Layout: magic "SIDRSCOL", version, column count, (name, type) per column,
+ * then groups of [row count, (byte length, bytes) per column], ending with
+ * a zero row count. Memory use is bounded by the row group size.
+ * {@link ColumnarReader} reads the files back.
+ */
+public class ColumnarWriter implements Closeable {
+
+    public enum ColumnType { INT, TIME, STRING, BOOL }
+
+    // Shared with ColumnarReader
+    static final byte[] MAGIC = "SIDRSCOL".getBytes(StandardCharsets.US_ASCII);
+    static final int FORMAT_VERSION = 1;
+    static final int MAX_DICTIONARY_SIZE = 4096;
+    private static final int ROWS_PER_GROUP = 65536;
+
+    private final DataOutputStream out;
+    private final ColumnType[] types;
+    private final ByteBuffer[] columns;
+    private final long[] previous;
+    // Per column; null for columns that aren't STRING
+    private final List<Map<String, Integer>> dictionaries;
+    private int rowsInGroup;
+
+    public ColumnarWriter(OutputStream output, String[] names, ColumnType[] types) throws IOException {
+        this.out = new DataOutputStream(output);
+        this.types = types.clone();
+        this.columns = new ByteBuffer[types.length];
+        this.previous = new long[types.length];
+        this.dictionaries = new ArrayList<>(types.length);
+
+        for (int i = 0; i < types.length; i++) {
+            columns[i] = new ByteBuffer();
+            dictionaries.add(types[i] == ColumnType.STRING ? new HashMap<>() : null);
+        }
+
+        out.write(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(types.length);
+        for (int i = 0; i < types.length; i++) {
+            out.writeUTF(names[i]);
+            out.writeByte(types[i].ordinal());
+        }
+    }
+
+    // =============================
+    // Column values for the current row
+    // =============================
+
+    public void setInt(int column, long value) {
+        ByteBuffer buf = columns[column];
+        buf.writeVarLong(zigZag(value - previous[column]));
+        previous[column] = value;
+    }
+
+    /**
+     * Write a timestamp in epoch millis, or null. Encoded as 0 for null,
+     * otherwise 1 + zig-zag delta from the previous non-null value.
+     */
+    public void setTime(int column, java.util.Date value) {
+        ByteBuffer buf = columns[column];
+        if (value == null) {
+            buf.writeVarLong(0);
+            return;
+        }
+        long millis = value.getTime();
+        buf.writeVarLong(zigZag(millis - previous[column]) + 1);
+        previous[column] = millis;
+    }
+
+    /**
+     * Write a string, or null. Encoded as 0 for null, 1 followed by the
+     * UTF-8 literal for a new value, or 2 + dictionary index for a repeat.
+     */
+    public void setString(int column, String value) {
+        ByteBuffer buf = columns[column];
+        if (value == null) {
+            buf.writeVarLong(0);
+            return;
+        }
+        Map<String, Integer> dictionary = dictionaries.get(column);
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            buf.writeVarLong(index + 2L);
+            return;
+        }
+        if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+            dictionary.put(value, dictionary.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buf.writeVarLong(1);
+        buf.writeVarLong(bytes.length);
+        buf.write(bytes, 0, bytes.length);
+    }
+
+    public void setBool(int column, boolean value) {
+        columns[column].write(value ? 1 : 0);
+    }
+
+    /**
+     * Finish the current row, flushing the row group when it is full
+     */
+    public void endRow() throws IOException {
+        if (++rowsInGroup == ROWS_PER_GROUP) {
+            flushGroup();
+        }
+    }
+
+    private void flushGroup() throws IOException {
+        if (rowsInGroup == 0) return;
+
+        out.writeInt(rowsInGroup);
+        for (int i = 0; i < columns.length; i++) {
+            out.writeInt(columns[i].size());
+            columns[i].writeTo(out);
+            columns[i].reset();
+            previous[i] = 0;
+            if (dictionaries.get(i) != null) {
+                dictionaries.get(i).clear();
+            }
+        }
+        rowsInGroup = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushGroup();
+            out.writeInt(0);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * Growable byte buffer that keeps its backing array across row groups
+     */
+    private static class ByteBuffer {
+        private byte[] data = new byte[1024];
+        private int size;
+
+        void write(int b) {
+            ensure(1);
+            data[size++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        int size() { return size; }
+
+        void reset() { size = 0; }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(data, 0, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package logic;
+
+import database.DatabaseManager;
+import model.BlockedIP;
+import model.DashboardSnapshot;
+import model.LoginAttempt;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Dashboard Snapshot Service - Loads all dashboard data in parallel and
+ * publishes it as one immutable snapshot
+ */
+public class DashboardSnapshotService {
+
+    private static final int RECENT_ATTEMPTS_LIMIT = 500;
+
+    // Counts and 24h windows drift even without writes, so refetch eventually
+    private static final long MAX_SNAPSHOT_AGE_MS = 60 * 1000;
+
+    // One thread per query; each gets its own connection from DatabaseManager
+    private static final ExecutorService pool = Executors.newFixedThreadPool(3, r -> {
+        Thread t = new Thread(r, "sidrs-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Object publishLock = new Object();
+    private static volatile DashboardSnapshot current;
+    private static volatile String currentDataVersion;
+
+    /**
+     * Get the most recently published snapshot, or null if none yet
+     */
+    public static DashboardSnapshot getCurrent() {
+        return current;
+    }
+
+    /**
+     * Fetch a new snapshot if anything changed since the last one.
+     *
+     * Local writes bump the change version; writes from other nodes show up
+     * in the database's data version, read before the fetch so anything
+     * written during it triggers the next refresh.
+     *
+     * @param force refetch even if neither version changed
+     * @return the newly published snapshot, or null if the current one is still valid
+     */
+    public static DashboardSnapshot refresh(boolean force) throws InterruptedException {
+        long version = DatabaseManager.getChangeVersion();
+        String dataVersion = DatabaseManager.getDataVersion();
+        DashboardSnapshot last = current;
+
+        if (!force && last != null && last.getVersion() == version
+                && dataVersion != null && dataVersion.equals(currentDataVersion)
+                && System.currentTimeMillis() - last.getCreatedAt() < MAX_SNAPSHOT_AGE_MS) {
+            return null;
+        }
+
+        Future<List<LoginAttempt>> attempts =
+                pool.submit(() -> DatabaseManager.getRecentLoginAttempts(RECENT_ATTEMPTS_LIMIT));
+        Future<List<BlockedIP>> blocked = pool.submit(DatabaseManager::getAllBlockedIPs);
+        Future<int[]> stats = pool.submit(DatabaseManager::getDashboardStats);
+
+        DashboardSnapshot snapshot;
+        try {
+            snapshot = new DashboardSnapshot(version,
+                    attempts.get(), blocked.get(), stats.get());
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        synchronized (publishLock) {
+            // A slower, older fetch must not replace a newer one
+            if (current != null && current.getVersion() > snapshot.getVersion()) {
+                return null;
+            }
+            current = snapshot;
+            currentDataVersion = dataVersion;
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,257 @@
+package logic;
+
+import database.CancelToken;
+import database.DatabaseManager;
+import logic.ColumnarWriter.ColumnType;
+import model.BlockedIP;
+import model.LoginAttempt;
+import model.SearchFilter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Data Exporter - Streams login attempts and blocklists to files
+ *
+ * Rows go straight from a streaming ResultSet into the output, so memory
+ * use stays flat regardless of how many rows are exported.
+ */
+public class DataExporter {
+
+    public enum Format { CSV, COLUMNAR }
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int PROGRESS_INTERVAL = 10000;
+
+    private static final String[] ATTEMPT_COLUMNS =
+            {"id", "username", "ip_address", "status", "attempt_time", "user_agent"};
+    private static final ColumnType[] ATTEMPT_TYPES =
+            {ColumnType.INT, ColumnType.STRING, ColumnType.STRING, ColumnType.STRING,
+                    ColumnType.TIME, ColumnType.STRING};
+
+    private static final String[] BLOCKED_COLUMNS =
+            {"id", "ip_address", "blocked_time", "expiry_time", "reason", "block_count", "is_permanent"};
+    private static final ColumnType[] BLOCKED_TYPES =
+            {ColumnType.INT, ColumnType.STRING, ColumnType.TIME, ColumnType.TIME,
+                    ColumnType.STRING, ColumnType.INT, ColumnType.BOOL};
+
+    /**
+     * Pick the format from the file extension (.csv, otherwise columnar)
+     */
+    public static Format formatFor(File file) {
+        return file.getName().toLowerCase().endsWith(".csv") ? Format.CSV : Format.COLUMNAR;
+    }
+
+    /**
+     * Export all login attempts matching the filter.
+     *
+     * @param progress called with the running row count every few thousand rows
+     * @return rows written, or -1 if cancelled (the partial file is deleted)
+     * @throws IOException if writing or the query failed (the partial file is deleted)
+     */
+    public static long exportLoginAttempts(File file, Format format, SearchFilter filter,
+                                           CancelToken token, LongConsumer progress) throws IOException {
+
+        long[] count = {0};
+        long streamed;
+
+        try (RowSink sink = openSink(file, format, ATTEMPT_COLUMNS, ATTEMPT_TYPES)) {
+            streamed = DatabaseManager.exportLoginAttempts(filter, token, attempt -> {
+                reportProgress(++count[0], progress);
+                return sink.writeAttempt(attempt);
+            });
+            sink.rethrow();
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+
+        return finish(file, token, streamed, count[0], progress);
+    }
+
+    /**
+     * Export the blocklist, optionally restricted by the filter. Returns and
+     * throws like {@link #exportLoginAttempts}.
+     */
+    public static long exportBlockedIPs(File file, Format format, SearchFilter filter,
+                                        CancelToken token, LongConsumer progress) throws IOException {
+
+        long[] count = {0};
+        long streamed;
+
+        try (RowSink sink = openSink(file, format, BLOCKED_COLUMNS, BLOCKED_TYPES)) {
+            streamed = DatabaseManager.streamBlockedIPs(filter, Integer.MAX_VALUE, token, blocked -> {
+                reportProgress(++count[0], progress);
+                return sink.writeBlockedIP(blocked);
+            });
+            sink.rethrow();
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+
+        return finish(file, token, streamed, count[0], progress);
+    }
+
+    private static void reportProgress(long count, LongConsumer progress) {
+        if (count % PROGRESS_INTERVAL == 0) {
+            progress.accept(count);
+        }
+    }
+
+    /**
+     * @param streamed what the query returned; negative if it failed part way
+     */
+    private static long finish(File file, CancelToken token, long streamed, long count,
+                               LongConsumer progress) throws IOException {
+        if (token.isCancelled()) {
+            file.delete();
+            return -1;
+        }
+        if (streamed < 0) {
+            // A truncated export must not pass for a complete one
+            file.delete();
+            throw new IOException("database query failed after " + count + " rows; partial file deleted");
+        }
+        progress.accept(count);
+        return count;
+    }
+
+    private static RowSink openSink(File file, Format format, String[] names, ColumnType[] types)
+            throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+        if (format == Format.CSV) {
+            return new CsvSink(out, names);
+        }
+        return new ColumnarSink(new GZIPOutputStream(out, BUFFER_SIZE), names, types);
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * Output target for exported rows. Row handlers can't throw checked
+     * exceptions, so the first write error stops the stream and is
+     * rethrown afterwards.
+     */
+    private abstract static class RowSink implements Closeable {
+        private IOException error;
+
+        boolean writeAttempt(LoginAttempt attempt) {
+            try {
+                attempt(attempt);
+                return true;
+            } catch (IOException e) {
+                error = e;
+                return false;
+            }
+        }
+
+        boolean writeBlockedIP(BlockedIP blocked) {
+            try {
+                blocked(blocked);
+                return true;
+            } catch (IOException e) {
+                error = e;
+                return false;
+            }
+        }
+
+        void rethrow() throws IOException {
+            if (error != null) throw error;
+        }
+
+        abstract void attempt(LoginAttempt attempt) throws IOException;
+        abstract void blocked(BlockedIP blocked) throws IOException;
+    }
+
+    private static class CsvSink extends RowSink {
+        private final Writer writer;
+
+        CsvSink(OutputStream out, String[] names) throws IOException {
+            writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(String.join(",", names));
+            writer.write('\n');
+        }
+
+        @Override
+        void attempt(LoginAttempt a) throws IOException {
+            writer.write(String.valueOf(a.getId()));
+            field(a.getUsername());
+            field(a.getIpAddress());
+            field(a.getStatus());
+            field(a.getAttemptTime() == null ? null : a.getAttemptTime().toString());
+            field(a.getUserAgent());
+            writer.write('\n');
+        }
+
+        @Override
+        void blocked(BlockedIP b) throws IOException {
+            writer.write(String.valueOf(b.getId()));
+            field(b.getIpAddress());
+            field(b.getBlockedTime() == null ? null : b.getBlockedTime().toString());
+            field(b.getExpiryTime() == null ? null : b.getExpiryTime().toString());
+            field(b.getReason());
+            field(String.valueOf(b.getBlockCount()));
+            field(b.isPermanent() ? "true" : "false");
+            writer.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            writer.write(',');
+            if (value == null) return;
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class ColumnarSink extends RowSink {
+        private final ColumnarWriter writer;
+
+        ColumnarSink(OutputStream out, String[] names, ColumnType[] types) throws IOException {
+            writer = new ColumnarWriter(out, names, types);
+        }
+
+        @Override
+        void attempt(LoginAttempt a) throws IOException {
+            writer.setInt(0, a.getId());
+            writer.setString(1, a.getUsername());
+            writer.setString(2, a.getIpAddress());
+            writer.setString(3, a.getStatus());
+            writer.setTime(4, a.getAttemptTime());
+            writer.setString(5, a.getUserAgent());
+            writer.endRow();
+        }
+
+        @Override
+        void blocked(BlockedIP b) throws IOException {
+            writer.setInt(0, b.getId());
+            writer.setString(1, b.getIpAddress());
+            writer.setTime(2, b.getBlockedTime());
+            writer.setTime(3, b.getExpiryTime());
+            writer.setString(4, b.getReason());
+            writer.setInt(5, b.getBlockCount());
+            writer.setBool(6, b.isPermanent());
+            writer.endRow();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -12,48 +12,162 @@ public class DetectionEngine {
     private static final int TIME_WINDOW_MINUTES = 5;
     private static final int LOCKOUT_DURATION_MINUTES = 30;
 
-    public static DetectionResult analyzeAttempt(String ipAddress,
-                                                 String username,
-                                                 boolean success) {
+    // Count failures in the database (one stored-procedure call per attempt)
+    // instead of in memory; for deployments where the database is shared by
+    // nodes that don't cluster
+    private static final boolean DATABASE_COUNTERS = Boolean.getBoolean("sidrs.detection.databaseCounters");
 
-        DetectionResult result = new DetectionResult();
+    /**
+     * Cheap checks to run before credentials are validated: blocked IPs and
+     * the per-IP / per-username rate limits. Touches no database on the
+     * throttled path. Trusted networks skip all of them.
+     *
+     * @return a rejection result, or null if the attempt may proceed
+     */
+    public static DetectionResult checkBeforeAuthentication(String ipAddress, String username) {
+
+        if (TrustedNetworks.isTrusted(ipAddress)) {
+            return null;
+        }
+
+        long retryAfter = RateLimiter.tryAcquire(ipAddress, username);
+        if (retryAfter > 0) {
+            recordRejected();
+            HeavyHitters.recordFailure(ipAddress, username);
+            DetectionResult result = new DetectionResult();
+            result.setBlocked(false);
+            result.setThrottled(true);
+            result.setRetryAfterMillis(retryAfter);
+            result.setMessage("Too many attempts. Try again in " +
+                    Math.max(1, (retryAfter + 999) / 1000) + " s");
+            result.setThreatLevel(ThreatLevel.THROTTLED);
+            result.setTarpitMillis(Math.min(retryAfter, Tarpit.maxDelay()));
+            enrich(result, ipAddress);
+            return result;
+        }
 
-        // Check if IP already blocked
-        if (DatabaseManager.isIPBlocked(ipAddress)) {
+        if (IPBlocker.isBlocked(ipAddress)) {
+            recordRejected();
+            HeavyHitters.recordFailure(ipAddress, username);
+            DetectionResult result = new DetectionResult();
             result.setBlocked(true);
             result.setMessage("IP address is currently blocked");
             result.setThreatLevel(ThreatLevel.BLOCKED);
+            result.setTarpitMillis(Tarpit.maxDelay());
+            enrich(result, ipAddress);
+            return result;
+        }
 
+        if (AccountLockout.isLocked(username)) {
+            recordRejected();
+            HeavyHitters.recordFailure(ipAddress, username);
+            DetectionResult result = new DetectionResult();
+            result.setBlocked(false);
+            result.setAccountLocked(true);
+            result.setMessage("Account temporarily locked due to repeated failed logins");
+            result.setThreatLevel(ThreatLevel.HIGH);
+            result.setTarpitMillis(Tarpit.maxDelay());
+            enrich(result, ipAddress);
+            return result;
+        }
+
+        return null;
+    }
+
+    public static DetectionResult analyzeAttempt(String ipAddress,
+                                                 String username,
+                                                 boolean success) {
+        return analyzeAttempt(ipAddress, username, success, null);
+    }
+
+    public static DetectionResult analyzeAttempt(String ipAddress,
+                                                 String username,
+                                                 boolean success,
+                                                 String userAgent) {
+
+        // Trusted networks are neither counted, recorded nor blocked
+        if (TrustedNetworks.isTrusted(ipAddress)) {
+            return trustedResult(success);
+        }
+
+        DetectionResult result = new DetectionResult();
+        AttackRateSeries.record(AttackRateSeries.Series.ATTEMPTS);
+        enrich(result, ipAddress);
+
+        // Check if IP already blocked (including imported CIDR ranges). In
+        // database-counter mode the procedure checks the table itself, so
+        // only the in-memory index is asked here.
+        if (DATABASE_COUNTERS ? BlockIndex.isBlocked(ipAddress) : IPBlocker.isBlocked(ipAddress)) {
+            setBlocked(result, ipAddress, username);
             DatabaseManager.recordLoginAttempt(username, ipAddress, "BLOCKED");
             return result;
         }
 
-        // Record login attempt
-        String status = success ? "SUCCESS" : "FAILED";
-        DatabaseManager.recordLoginAttempt(username, ipAddress, status);
+        // Record login attempt; in database-counter mode this also counts and
+        // blocks, and falls back to the in-memory path if the call fails
+        int[] recorded = DATABASE_COUNTERS
+                ? DatabaseManager.recordAttemptAndCount(username, ipAddress, success, userAgent,
+                        TIME_WINDOW_MINUTES, MAX_FAILED_ATTEMPTS, LOCKOUT_DURATION_MINUTES, blockReason(result))
+                : null;
+        if (recorded == null) {
+            String status = success ? "SUCCESS" : "FAILED";
+            DatabaseManager.recordLoginAttempt(username, ipAddress, status, userAgent);
+        } else if (recorded[0] == 1) {
+            // Blocked in the database by another node
+            setBlocked(result, ipAddress, username);
+            return result;
+        }
 
         if (success) {
+            // Score against the user's usual addresses, hours and clients
+            double anomaly = BehaviorProfiler.scoreAndLearn(username, ipAddress, userAgent);
+            ThreatLevel level = BehaviorProfiler.toThreatLevel(anomaly);
+
             result.setBlocked(false);
-            result.setMessage("Login successful");
-            result.setThreatLevel(ThreatLevel.NONE);
+            result.setAnomalyScore(anomaly);
+            result.setThreatLevel(level);
+            result.setMessage(level == ThreatLevel.NONE
+                    ? "Login successful"
+                    : "Login successful (unusual activity, score " + Math.round(anomaly * 100) + "%)");
             return result;
         }
 
-        // Count failed attempts
-        int failedCount =
-                DatabaseManager.getFailedAttemptsCount(ipAddress, TIME_WINDOW_MINUTES);
+        HeavyHitters.recordFailure(ipAddress, username);
+        AttackRateSeries.record(AttackRateSeries.Series.FAILURES);
 
-        if (failedCount >= MAX_FAILED_ATTEMPTS) {
+        // Count failed attempts in memory, across all cluster nodes; the
+        // database's count wins when it made one
+        int failedCount = FailureTracker.recordIPFailure(ipAddress, TIME_WINDOW_MINUTES);
+        if (recorded != null) {
+            failedCount = recorded[1];
+        }
+
+        // Same for the targeted account, whichever IPs the attempts come from
+        boolean accountLocked = AccountLockout.recordFailure(username);
+        result.setAccountLocked(accountLocked);
 
-            String reason = "Exceeded " + MAX_FAILED_ATTEMPTS +
-                    " failed attempts in " + TIME_WINDOW_MINUTES + " minutes";
+        if (failedCount >= MAX_FAILED_ATTEMPTS) {
 
-            IPBlocker.blockIP(ipAddress, reason, LOCKOUT_DURATION_MINUTES);
+            String reason = blockReason(result);
+            if (recorded != null) {
+                // The procedure already stored the block
+                IPBlocker.blockedInDatabase(ipAddress, reason, LOCKOUT_DURATION_MINUTES);
+            } else {
+                IPBlocker.blockIP(ipAddress, reason, LOCKOUT_DURATION_MINUTES);
+            }
+            // Enough blocked neighbours and the whole network goes (if enabled)
+            AsnBlocker.recordHostile(ipAddress, result.getAsn());
 
             result.setBlocked(true);
             result.setMessage("IP blocked due to multiple failed attempts");
             result.setThreatLevel(ThreatLevel.HIGH);
             result.setFailedAttempts(failedCount);
+        } else if (accountLocked) {
+            result.setBlocked(false);
+            result.setMessage("Account locked for " + AccountLockout.getLockoutMinutes() +
+                    " minutes due to repeated failed logins");
+            result.setThreatLevel(ThreatLevel.HIGH);
+            result.setFailedAttempts(failedCount);
         } else {
             result.setBlocked(false);
             result.setMessage("Failed attempt " + failedCount +
@@ -64,18 +178,79 @@ public class DetectionEngine {
             result.setFailedAttempts(failedCount);
         }
 
+        // Each failure makes the caller wait longer for the answer
+        result.setTarpitMillis(result.isBlocked() || accountLocked
+                ? Tarpit.maxDelay() : Tarpit.delayFor(failedCount));
+
         return result;
     }
 
     public static boolean canAttemptLogin(String ipAddress) {
-        return !DatabaseManager.isIPBlocked(ipAddress);
+        return !IPBlocker.isBlocked(ipAddress);
     }
 
     public static int getRemainingAttempts(String ipAddress) {
-        int failed = DatabaseManager.getFailedAttemptsCount(ipAddress, TIME_WINDOW_MINUTES);
+        int failed = FailureTracker.ipFailures(ipAddress, TIME_WINDOW_MINUTES);
         return Math.max(0, MAX_FAILED_ATTEMPTS - failed);
     }
 
+    /**
+     * Load and initialize the in-memory detection state (rate limiter,
+     * failure windows, lockouts, profiles) ahead of the first login
+     */
+    public static void warmUp() {
+        RateLimiter.trackedIPs();
+        FailureTracker.ipFailures("127.0.0.1", TIME_WINDOW_MINUTES);
+        AccountLockout.lockedCount();
+        BehaviorProfiler.profileCount();
+        HeavyHitters.topIPs();
+        AttackRateSeries.currentSecond();
+    }
+
+    private static String blockReason(DetectionResult result) {
+        String reason = "Exceeded " + MAX_FAILED_ATTEMPTS +
+                " failed attempts in " + TIME_WINDOW_MINUTES + " minutes";
+        if (result.getAsn() != 0) {
+            reason += " [AS" + result.getAsn() +
+                    (result.getCountry() != null ? " " + result.getCountry() : "") + "]";
+        }
+        return reason;
+    }
+
+    private static void setBlocked(DetectionResult result, String ipAddress, String username) {
+        AttackRateSeries.record(AttackRateSeries.Series.BLOCKS);
+        result.setBlocked(true);
+        result.setMessage("IP address is currently blocked");
+        result.setThreatLevel(ThreatLevel.BLOCKED);
+        result.setTarpitMillis(Tarpit.maxDelay());
+
+        HeavyHitters.recordFailure(ipAddress, username);
+    }
+
+    private static DetectionResult trustedResult(boolean success) {
+        DetectionResult result = new DetectionResult();
+        result.setBlocked(false);
+        result.setTrusted(true);
+        result.setThreatLevel(ThreatLevel.NONE);
+        result.setMessage(success ? "Login successful" : "Login failed");
+        return result;
+    }
+
+    // Country and ASN from the local geo database; a no-op without one
+    private static void enrich(DetectionResult result, String ipAddress) {
+        int record = GeoDatabase.find(ipAddress);
+        if (record >= 0) {
+            result.setAsn(GeoDatabase.asnAt(record));
+            result.setCountry(GeoDatabase.countryAt(record));
+        }
+    }
+
+    // Attempts rejected before authentication never reach analyzeAttempt
+    private static void recordRejected() {
+        AttackRateSeries.record(AttackRateSeries.Series.ATTEMPTS);
+        AttackRateSeries.record(AttackRateSeries.Series.BLOCKS);
+    }
+
     // =============================
     // Inner Classes
     // =============================
@@ -86,6 +261,14 @@ public class DetectionEngine {
         private String message;
         private ThreatLevel threatLevel;
         private int failedAttempts;
+        private boolean throttled;
+        private long retryAfterMillis;
+        private double anomalyScore;
+        private boolean accountLocked;
+        private String country;
+        private int asn;
+        private boolean trusted;
+        private long tarpitMillis;
 
         public boolean isBlocked() { return blocked; }
         public void setBlocked(boolean blocked) { this.blocked = blocked; }
@@ -102,9 +285,43 @@ public class DetectionEngine {
         public void setFailedAttempts(int failedAttempts) {
             this.failedAttempts = failedAttempts;
         }
+
+        public boolean isThrottled() { return throttled; }
+        public void setThrottled(boolean throttled) { this.throttled = throttled; }
+
+        public long getRetryAfterMillis() { return retryAfterMillis; }
+        public void setRetryAfterMillis(long retryAfterMillis) {
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public boolean isAccountLocked() { return accountLocked; }
+        public void setAccountLocked(boolean accountLocked) {
+            this.accountLocked = accountLocked;
+        }
+
+        public double getAnomalyScore() { return anomalyScore; }
+        public void setAnomalyScore(double anomalyScore) {
+            this.anomalyScore = anomalyScore;
+        }
+
+        /** Two-letter country code, or null if unknown */
+        public String getCountry() { return country; }
+        public void setCountry(String country) { this.country = country; }
+
+        /** Autonomous system number, or 0 if unknown */
+        public int getAsn() { return asn; }
+        public void setAsn(int asn) { this.asn = asn; }
+
+        /** True if the source is on the trusted-networks allowlist */
+        public boolean isTrusted() { return trusted; }
+        public void setTrusted(boolean trusted) { this.trusted = trusted; }
+
+        /** How long the front end should hold the response; 0 = answer now */
+        public long getTarpitMillis() { return tarpitMillis; }
+        public void setTarpitMillis(long tarpitMillis) { this.tarpitMillis = tarpitMillis; }
     }
 
     public enum ThreatLevel {
-        NONE, LOW, MEDIUM, HIGH, CRITICAL, BLOCKED
+        NONE, LOW, MEDIUM, HIGH, CRITICAL, THROTTLED, BLOCKED
     }
 }
@@ -0,0 +1,148 @@
+package logic;
+
+import cluster.ClusterNode;
+import database.DatabaseManager;
+import database.LoginAttemptPartitions;
+import database.SchemaMigrator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Engine Runtime - Brings up the detection engine and its background
+ * services, independent of any user interface
+ *
+ * Used by both the desktop client and the headless daemon. The database
+ * connection, schema, block index, cluster membership and retention
+ * scheduler are started in parallel where they don't depend on each other.
+ */
+public class EngineRuntime {
+
+    private static final int PARTITIONS_AHEAD_DAYS = 7;
+
+    private static CompletableFuture<Boolean> started;
+
+    /**
+     * Start everything once; later calls return the same future.
+     *
+     * @param spareConnections connections to open ahead of time for worker threads
+     * @param prefetchDashboard also load the first dashboard snapshot
+     * @return completes with false if the database could not be reached
+     */
+    public static CompletableFuture<Boolean> start(int spareConnections, boolean prefetchDashboard) {
+        return start(spareConnections, prefetchDashboard, true);
+    }
+
+    /**
+     * @param joinCluster also join the detection cluster configured with
+     * -Dsidrs.cluster.peers; off for tools whose decisions must stay local
+     */
+    public static synchronized CompletableFuture<Boolean> start(int spareConnections,
+                                                                boolean prefetchDashboard,
+                                                                boolean joinCluster) {
+        if (started != null) {
+            return started;
+        }
+
+        ExecutorService startup = Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "sidrs-startup");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // In-memory detection state needs no database
+        CompletableFuture<Void> detection = CompletableFuture.runAsync(() -> {
+            DetectionEngine.warmUp();
+            StartupTimer.mark("detection state");
+
+            // Local country/ASN ranges (-Dsidrs.geo.db)
+            GeoDatabase.openFromSystemProperties();
+        }, startup);
+
+        CompletableFuture<Boolean> database = CompletableFuture.supplyAsync(() -> {
+            if (!DatabaseManager.testConnection()) {
+                return false;
+            }
+            StartupTimer.mark("database connection");
+
+            // Bring tables, indexes and partitions up to date
+            if (SchemaMigrator.migrate()) {
+                LoginAttemptPartitions.ensureAhead(PARTITIONS_AHEAD_DAYS);
+                // Locks whose node went down while they were held
+                AccountLockout.releaseExpired();
+            }
+            StartupTimer.mark("schema");
+            return true;
+        }, startup);
+
+        // Everything below waits for the database, then runs side by side
+        CompletableFuture<Void> connections = database.thenAcceptAsync(ok -> {
+            if (ok && spareConnections > 0) {
+                DatabaseManager.prewarm(spareConnections);
+                StartupTimer.mark("spare connections");
+            }
+        }, startup);
+
+        CompletableFuture<Void> blockIndex = database.thenAcceptAsync(ok -> {
+            if (ok) {
+                // Allowlist, re-read every -Dsidrs.trusted.reloadSeconds
+                TrustedNetworks.start();
+
+                // Lookups fall back to the database until the index is loaded
+                BlockIndex.rebuild();
+                StartupTimer.mark("block index");
+
+                // Join the detection cluster when -Dsidrs.cluster.peers is set
+                if (joinCluster) {
+                    ClusterNode.startFromSystemProperties();
+                }
+            }
+        }, startup);
+
+        CompletableFuture<Void> services = database.thenAcceptAsync(ok -> {
+            if (!ok) {
+                return;
+            }
+            if (prefetchDashboard) {
+                // First dashboard snapshot, also opening the loader threads' connections
+                try {
+                    DashboardSnapshotService.refresh(false);
+                    StartupTimer.mark("dashboard snapshot");
+                    UserDirectory.load();
+                    StartupTimer.mark("user directory");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            // Purge old login attempts in the background (-Dsidrs.retention.days)
+            RetentionManager.startFromSystemProperties();
+        }, startup);
+
+        CompletableFuture.allOf(detection, connections, blockIndex, services)
+                .whenComplete((v, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                    }
+                    StartupTimer.mark("warm-up complete");
+                    startup.shutdown();
+                });
+
+        started = database;
+        return started;
+    }
+
+    /**
+     * Stop the background services started by {@link #start}
+     */
+    public static synchronized void stop() {
+        RetentionManager.stop();
+        TrustedNetworks.stop();
+
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            node.stop();
+        }
+    }
+}
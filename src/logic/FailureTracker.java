@@ -0,0 +1,103 @@
+package logic;
+
+import cluster.ClusterNode;
+
+/**
+ * Failure Tracker - In-memory failure windows used for detection decisions
+ *
+ * Counts are kept per minute in a FailureWindowTable, per IP and per
+ * username in the same table (keys are namespaced). When clustering is
+ * enabled, totals include every other node's replicated counts, so an
+ * attack spread across nodes still reaches the threshold.
+ */
+public class FailureTracker {
+
+    private static final FailureWindowTable local = new FailureWindowTable();
+
+    /**
+     * This node's own counters (what the cluster replicates to peers)
+     */
+    public static FailureWindowTable localWindows() {
+        return local;
+    }
+
+    /**
+     * Record a failed attempt from the IP
+     *
+     * @return cluster-wide failures from the IP within the window, including this one
+     */
+    public static int recordIPFailure(String ipAddress, int windowMinutes) {
+        return record(ipKey(ipAddress), windowMinutes);
+    }
+
+    /**
+     * Cluster-wide failures from the IP within the window
+     */
+    public static int ipFailures(String ipAddress, int windowMinutes) {
+        return count(ipKey(ipAddress), windowMinutes);
+    }
+
+    /**
+     * Record a failed attempt against the username, from any IP
+     *
+     * @return cluster-wide failures for the username within the window, including this one
+     */
+    public static int recordUserFailure(String username, int windowMinutes) {
+        return record(userKey(username), windowMinutes);
+    }
+
+    /**
+     * Cluster-wide failures for the username within the window
+     */
+    public static int userFailures(String username, int windowMinutes) {
+        return count(userKey(username), windowMinutes);
+    }
+
+    /**
+     * Forget the username's failures held on this node, its own and its
+     * copies of other nodes' (e.g. after an admin unlock). The other nodes
+     * reset theirs when the unlock reaches them.
+     */
+    public static void resetUser(String username) {
+        long hash = FailureWindowTable.hash(userKey(username));
+        local.reset(hash);
+
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            node.resetRemote(hash);
+        }
+    }
+
+    private static int record(String key, int windowMinutes) {
+        long hash = FailureWindowTable.hash(key);
+        int minute = FailureWindowTable.currentMinute();
+        int total = local.increment(hash, minute, windowMinutes);
+
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            node.markDirty(hash);
+            total += node.remoteSum(hash, minute, windowMinutes);
+        }
+        return total;
+    }
+
+    private static int count(String key, int windowMinutes) {
+        long hash = FailureWindowTable.hash(key);
+        int minute = FailureWindowTable.currentMinute();
+        int total = local.sum(hash, minute, windowMinutes);
+
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            total += node.remoteSum(hash, minute, windowMinutes);
+        }
+        return total;
+    }
+
+    private static String ipKey(String ipAddress) {
+        return "ip:" + ipAddress;
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username.toLowerCase();
+    }
+}
@@ -0,0 +1,217 @@
+package logic;
+
+/**
+ * Failure Window Table - Compact per-key sliding-window counters
+ *
+ * Each key (a 64-bit hash) has {@link #SLOTS} one-minute slots in a ring,
+ * held in striped open-addressing tables of primitive arrays. Counting and
+ * summing touch only that key's slots. Keys whose slots have all aged out
+ * are dropped whenever a stripe is rebuilt.
+ *
+ * Counts per (key, minute) only ever grow, so a table can also hold a copy
+ * of another node's counters and take updates with {@link #mergeMax}
+ * (a grow-only CRDT counter).
+ */
+public class FailureWindowTable {
+
+    /** Longest window supported, in minutes */
+    public static final int SLOTS = 8;
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_STRIPE_CAPACITY = 32;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public FailureWindowTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public static int currentMinute() {
+        return (int) (System.currentTimeMillis() / 60_000);
+    }
+
+    public static long hash(String key) {
+        return TokenBucketTable.hash(key);
+    }
+
+    /**
+     * Add one to the key's count for the given minute
+     *
+     * @return the key's total over the last windowMinutes, including this one
+     */
+    public int increment(long hash, int minute, int windowMinutes) {
+        return stripe(hash).add(hash, minute, 1, false, windowMinutes);
+    }
+
+    /**
+     * Raise the key's count for a minute to at least the given value
+     */
+    public void mergeMax(long hash, int minute, int count) {
+        stripe(hash).add(hash, minute, count, true, 0);
+    }
+
+    /**
+     * Sum of the key's counts for minutes in (nowMinute - windowMinutes, nowMinute]
+     */
+    public int sum(long hash, int nowMinute, int windowMinutes) {
+        return stripe(hash).sum(hash, nowMinute, windowMinutes);
+    }
+
+    /**
+     * Copy the key's live slots into the arrays
+     *
+     * @return number of slots copied (at most SLOTS)
+     */
+    public int liveSlots(long hash, int nowMinute, int[] minutesOut, int[] countsOut) {
+        return stripe(hash).liveSlots(hash, nowMinute, minutesOut, countsOut);
+    }
+
+    /**
+     * Forget the key, e.g. when an account is manually unlocked
+     */
+    public void reset(long hash) {
+        stripe(hash).reset(hash);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripe(long hash) {
+        return stripes[(int) (hash >>> 58) & (STRIPES - 1)];
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    private static class Stripe {
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private int[] minutes = new int[INITIAL_STRIPE_CAPACITY * SLOTS];
+        private int[] counts = new int[INITIAL_STRIPE_CAPACITY * SLOTS];
+        private int size;
+
+        synchronized int add(long hash, int minute, int value, boolean max, int windowMinutes) {
+            int slot = find(hash);
+            if (keys[slot] == 0) {
+                if ((size + 1) * 4 > keys.length * 3) {
+                    rehash(minute);
+                    slot = find(hash);
+                }
+                keys[slot] = hash;
+                size++;
+            }
+
+            int cell = slot * SLOTS + Math.floorMod(minute, SLOTS);
+            if (minutes[cell] != minute) {
+                // Slot holds an older minute (or nothing); a newer one already there wins
+                if (minutes[cell] > minute && counts[cell] != 0) {
+                    return windowMinutes > 0 ? sumSlot(slot, minute, windowMinutes) : 0;
+                }
+                minutes[cell] = minute;
+                counts[cell] = 0;
+            }
+            counts[cell] = max ? Math.max(counts[cell], value) : counts[cell] + value;
+
+            return windowMinutes > 0 ? sumSlot(slot, minute, windowMinutes) : 0;
+        }
+
+        synchronized int sum(long hash, int nowMinute, int windowMinutes) {
+            int slot = find(hash);
+            return keys[slot] == 0 ? 0 : sumSlot(slot, nowMinute, windowMinutes);
+        }
+
+        synchronized int liveSlots(long hash, int nowMinute, int[] minutesOut, int[] countsOut) {
+            int slot = find(hash);
+            if (keys[slot] == 0) return 0;
+
+            int n = 0;
+            for (int i = slot * SLOTS; i < (slot + 1) * SLOTS; i++) {
+                if (counts[i] != 0 && minutes[i] > nowMinute - SLOTS) {
+                    minutesOut[n] = minutes[i];
+                    countsOut[n] = counts[i];
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        synchronized void reset(long hash) {
+            int slot = find(hash);
+            if (keys[slot] == 0) return;
+            for (int i = slot * SLOTS; i < (slot + 1) * SLOTS; i++) {
+                counts[i] = 0;
+            }
+        }
+
+        private int sumSlot(int slot, int nowMinute, int windowMinutes) {
+            int total = 0;
+            int oldest = nowMinute - Math.min(windowMinutes, SLOTS);
+            for (int i = slot * SLOTS; i < (slot + 1) * SLOTS; i++) {
+                if (minutes[i] > oldest && minutes[i] <= nowMinute) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        private boolean isLive(long[] k, int[] m, int[] c, int slot, int nowMinute) {
+            if (k[slot] == 0) return false;
+            for (int i = slot * SLOTS; i < (slot + 1) * SLOTS; i++) {
+                if (c[i] != 0 && m[i] > nowMinute - SLOTS) return true;
+            }
+            return false;
+        }
+
+        private int find(long hash) {
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0 && keys[slot] != hash) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Rebuild without keys whose slots have all aged out
+         */
+        private void rehash(int nowMinute) {
+            long[] oldKeys = keys;
+            int[] oldMinutes = minutes;
+            int[] oldCounts = counts;
+
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (isLive(oldKeys, oldMinutes, oldCounts, i, nowMinute)) live++;
+            }
+
+            int capacity = INITIAL_STRIPE_CAPACITY;
+            while ((live + 1) * 2 > capacity) {
+                capacity *= 2;
+            }
+
+            keys = new long[capacity];
+            minutes = new int[capacity * SLOTS];
+            counts = new int[capacity * SLOTS];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (isLive(oldKeys, oldMinutes, oldCounts, i, nowMinute)) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    System.arraycopy(oldMinutes, i * SLOTS, minutes, slot * SLOTS, SLOTS);
+                    System.arraycopy(oldCounts, i * SLOTS, counts, slot * SLOTS, SLOTS);
+                    size++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package logic;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geo Database - Country and ASN of an IPv4 address from a local range file
+ *
+ * The file is memory-mapped and searched in place: a binary search over
+ * sorted, non-overlapping ranges, with no allocation per lookup and no
+ * network access. Build one from an IP-to-ASN dump with {@link #compile}
+ * (or run this class), and enable it with -Dsidrs.geo.db=path.
+ *
+ * Layout: magic, version, record count, then 16-byte records
+ * (first address, last address, ASN, country) ordered by first address.
+ */
+public class GeoDatabase {
+
+    private static final int MAGIC = 0x5347454F;   // "SGEO"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 16;
+
+    // Two-letter codes, indexed by the packed value, so lookups never build strings
+    private static final String[] COUNTRIES = new String[26 * 26];
+
+    static {
+        for (int i = 0; i < COUNTRIES.length; i++) {
+            COUNTRIES[i] = "" + (char) ('A' + i / 26) + (char) ('A' + i % 26);
+        }
+    }
+
+    private static volatile Mapping mapping;
+
+    /**
+     * Open the file named by -Dsidrs.geo.db, if set
+     */
+    public static void openFromSystemProperties() {
+        String path = System.getProperty("sidrs.geo.db");
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+        try {
+            open(new File(path));
+        } catch (IOException e) {
+            System.out.println("⚠️ Geo database not loaded: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Map a compiled range file, replacing any file opened before
+     */
+    public static void open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a geo database");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " has unsupported version " + buffer.getInt(4));
+            }
+            int count = buffer.getInt(8);
+            if (count < 0 || buffer.limit() != HEADER_BYTES + (long) count * RECORD_BYTES) {
+                throw new IOException(file + " is truncated");
+            }
+
+            mapping = new Mapping(buffer, count);
+            System.out.println("🌍 Geo database loaded: " + count + " ranges from " + file.getName());
+        }
+    }
+
+    public static boolean isLoaded() {
+        return mapping != null;
+    }
+
+    // ===============================
+    // Lookups
+    // ===============================
+    /**
+     * @return the record holding the address, or -1 if none (or no file loaded)
+     */
+    public static int find(String ipAddress) {
+        long address = IPv4.parse(ipAddress);
+        if (address < 0) {
+            long cidr = IPv4.parseCidr(ipAddress);
+            if (cidr < 0) return -1;
+            address = IPv4.network(cidr) & 0xFFFFFFFFL;
+        }
+        return find(address);
+    }
+
+    /**
+     * @param address unsigned IPv4 address in the low 32 bits
+     */
+    public static int find(long address) {
+        Mapping m = mapping;
+        if (m == null) return -1;
+
+        // Last record starting at or before the address
+        int low = 0;
+        int high = m.count - 1;
+        int match = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (m.first(mid) <= address) {
+                match = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return match >= 0 && address <= m.last(match) ? match : -1;
+    }
+
+    /**
+     * @return the record's ASN, or 0 for record -1
+     */
+    public static int asnAt(int record) {
+        Mapping m = mapping;
+        return record < 0 || m == null || record >= m.count ? 0 : m.asn(record);
+    }
+
+    /**
+     * @return the record's two-letter country code, or null
+     */
+    public static String countryAt(int record) {
+        Mapping m = mapping;
+        if (record < 0 || m == null || record >= m.count) return null;
+        int packed = m.country(record);
+        return packed >= 0 && packed < COUNTRIES.length ? COUNTRIES[packed] : null;
+    }
+
+    public static int asnOf(String ipAddress) {
+        return asnAt(find(ipAddress));
+    }
+
+    /**
+     * Short origin text for display, e.g. "US · AS13335"; empty if unknown
+     */
+    public static String describe(String ipAddress) {
+        int record = find(ipAddress);
+        if (record < 0) return "";
+        String country = countryAt(record);
+        int asn = asnAt(record);
+        return (country != null ? country : "??") + (asn != 0 ? " · AS" + asn : "");
+    }
+
+    /**
+     * Every range announced by the ASN, as CIDRs. Scans the whole file, so
+     * keep it off hot paths.
+     */
+    public static List<String> prefixesOf(int asn) {
+        List<String> prefixes = new ArrayList<>();
+        Mapping m = mapping;
+        if (m == null || asn == 0) return prefixes;
+
+        for (int i = 0; i < m.count; i++) {
+            if (m.asn(i) != asn) continue;
+            long start = m.first(i);
+            long end = m.last(i);
+            // Largest aligned block that fits, repeatedly
+            while (start <= end) {
+                int bits = Math.min(32, Long.numberOfTrailingZeros(start | (1L << 32)));
+                while (bits > 0 && start + (1L << bits) - 1 > end) {
+                    bits--;
+                }
+                prefixes.add(IPv4.formatCidr((start << 8) | (32 - bits)));
+                start += 1L << bits;
+            }
+        }
+        return prefixes;
+    }
+
+    // ===============================
+    // Build
+    // ===============================
+    /**
+     * Compile a range dump into the mapped format. Each line is
+     * first,last,asn,country[,...] separated by tabs or commas (the usual
+     * IP-to-ASN TSV layout). Lines with ASN 0, IPv6 ranges and ranges
+     * overlapping an earlier one are skipped.
+     *
+     * @return number of ranges written
+     */
+    public static int compile(BufferedReader in, File out) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] fields = line.split(line.indexOf('\t') >= 0 ? "\t" : ",", 5);
+            if (fields.length < 4) continue;
+
+            long first = IPv4.parse(fields[0].trim());
+            long last = IPv4.parse(fields[1].trim());
+            long asn;
+            try {
+                asn = Long.parseLong(fields[2].trim());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (first < 0 || last < first || asn <= 0 || asn > Integer.MAX_VALUE) continue;
+
+            ranges.add(new long[]{first, last, asn, packCountry(fields[3].trim())});
+        }
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> kept = new ArrayList<>(ranges.size());
+        long lastEnd = -1;
+        for (long[] range : ranges) {
+            if (range[0] > lastEnd) {
+                kept.add(range);
+                lastEnd = range[1];
+            }
+        }
+
+        try (DataOutputStream data = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(out)))) {
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(kept.size());
+            for (long[] range : kept) {
+                data.writeInt((int) range[0]);
+                data.writeInt((int) range[1]);
+                data.writeInt((int) range[2]);
+                data.writeInt((int) range[3]);
+            }
+        }
+        return kept.size();
+    }
+
+    private static int packCountry(String code) {
+        if (code.length() != 2) return -1;
+        char a = Character.toUpperCase(code.charAt(0));
+        char b = Character.toUpperCase(code.charAt(1));
+        if (a < 'A' || a > 'Z' || b < 'A' || b > 'Z') return -1;
+        return (a - 'A') * 26 + (b - 'A');
+    }
+
+    /**
+     * Usage: GeoDatabase input.tsv output.sidrsgeo
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: GeoDatabase <input.tsv|csv> <output.sidrsgeo>");
+            return;
+        }
+        try (BufferedReader in = new BufferedReader(new FileReader(args[0]))) {
+            int count = compile(in, new File(args[1]));
+            System.out.println("🌍 Wrote " + count + " ranges to " + args[1]);
+        }
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * One mapped file; replaced as a whole when another is opened
+     */
+    private static final class Mapping {
+        final ByteBuffer buffer;
+        final int count;
+
+        Mapping(ByteBuffer buffer, int count) {
+            this.buffer = buffer;
+            this.count = count;
+        }
+
+        long first(int record) {
+            return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES) & 0xFFFFFFFFL;
+        }
+
+        long last(int record) {
+            return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + 4) & 0xFFFFFFFFL;
+        }
+
+        int asn(int record) {
+            return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + 8);
+        }
+
+        int country(int record) {
+            return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + 12);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package logic;
+
+import java.util.*;
+
+/**
+ * Heavy Hitters - Continuously updated top-K of attacking IPs, subnets and
+ * targeted usernames over a sliding window
+ *
+ * The window is a ring of one-minute Space-Saving sketches; the oldest is
+ * cleared as time moves on. The merged top-K is recomputed at most once a
+ * second and cached, so readers such as the dashboard get an O(K) list.
+ */
+public class HeavyHitters {
+
+    private static final int TOP_K = 20;
+    private static final int SKETCH_CAPACITY = 256;
+    private static final int WINDOW_MINUTES = 15;
+    private static final long CACHE_MILLIS = 1000;
+
+    private static final HeavyHitters failingIPs = new HeavyHitters();
+    private static final HeavyHitters failingSubnets = new HeavyHitters();
+    private static final HeavyHitters targetedUsers = new HeavyHitters();
+
+    private final SpaceSaving[] ring = new SpaceSaving[WINDOW_MINUTES];
+    private final int[] ringMinute = new int[WINDOW_MINUTES];
+    private List<Entry> cachedTop = Collections.emptyList();
+    private long cachedAt;
+
+    private HeavyHitters() {
+        for (int i = 0; i < WINDOW_MINUTES; i++) {
+            ring[i] = new SpaceSaving(SKETCH_CAPACITY);
+        }
+    }
+
+    // =============================
+    // Detection feed
+    // =============================
+
+    /**
+     * Count a failed or blocked attempt
+     */
+    public static void recordFailure(String ipAddress, String username) {
+        failingIPs.offer(ipAddress);
+
+        long ip = IPv4.parse(ipAddress);
+        if (ip >= 0) {
+            failingSubnets.offer(IPv4.formatCidr(((ip & IPv4.mask(24)) << 8) | 24));
+        }
+
+        if (username != null && !username.isEmpty()) {
+            targetedUsers.offer(username.toLowerCase());
+        }
+    }
+
+    public static List<Entry> topIPs() { return failingIPs.top(); }
+    public static List<Entry> topSubnets() { return failingSubnets.top(); }
+    public static List<Entry> topUsernames() { return targetedUsers.top(); }
+
+    public static int getWindowMinutes() {
+        return WINDOW_MINUTES;
+    }
+
+    // =============================
+    // Window maintenance
+    // =============================
+
+    private synchronized void offer(String key) {
+        int minute = FailureWindowTable.currentMinute();
+        int slot = Math.floorMod(minute, WINDOW_MINUTES);
+        if (ringMinute[slot] != minute) {
+            ring[slot].clear();
+            ringMinute[slot] = minute;
+        }
+        ring[slot].offer(key);
+    }
+
+    private synchronized List<Entry> top() {
+        long now = System.currentTimeMillis();
+        if (now - cachedAt < CACHE_MILLIS) {
+            return cachedTop;
+        }
+
+        int minute = FailureWindowTable.currentMinute();
+        Map<String, long[]> merged = new HashMap<>();
+        for (int i = 0; i < WINDOW_MINUTES; i++) {
+            if (ringMinute[i] > minute - WINDOW_MINUTES) {
+                ring[i].mergeInto(merged);
+            }
+        }
+
+        List<Entry> entries = new ArrayList<>(merged.size());
+        for (Map.Entry<String, long[]> e : merged.entrySet()) {
+            entries.add(new Entry(e.getKey(), e.getValue()[0], e.getValue()[1]));
+        }
+        entries.sort((a, b) -> Long.compare(b.count, a.count));
+
+        cachedTop = Collections.unmodifiableList(
+                new ArrayList<>(entries.subList(0, Math.min(TOP_K, entries.size()))));
+        cachedAt = now;
+        return cachedTop;
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    public static class Entry {
+        private final String key;
+        private final long count;
+        private final long error;
+
+        Entry(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() { return key; }
+
+        /** Estimated count; may overstate by up to getError() */
+        public long getCount() { return count; }
+        public long getError() { return error; }
+    }
+}
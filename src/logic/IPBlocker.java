@@ -1,3 +1,4 @@
+import cluster.ClusterNode;
 import dataBase.DatabaseManager;
 import model.BlockedIP;
 
@@ -16,6 +17,11 @@ public class IPBlocker {
             return false;
         }
 
+        if (TrustedNetworks.isTrusted(ipAddress.trim())) {
+            System.out.println("⚠️ Not blocking trusted IP: " + ipAddress);
+            return false;
+        }
+
         boolean success = DatabaseManager.blockIP(ipAddress.trim(), reason);
 
         if (success) {
@@ -25,6 +31,44 @@ public class IPBlocker {
         return success;
     }
 
+    /**
+     * Block an IP address for a limited time
+     */
+    public static boolean blockIP(String ipAddress, String reason, int durationMinutes) {
+        if (ipAddress == null || ipAddress.trim().isEmpty()) {
+            return false;
+        }
+
+        String ip = ipAddress.trim();
+        if (TrustedNetworks.isTrusted(ip)) {
+            System.out.println("⚠️ Not blocking trusted IP: " + ip);
+            return false;
+        }
+
+        boolean success = DatabaseManager.blockIP(ip, reason, durationMinutes);
+
+        if (success) {
+            blockedInDatabase(ip, reason, durationMinutes);
+        }
+
+        return success;
+    }
+
+    /**
+     * Apply a timed block the database has already stored (e.g. by
+     * DatabaseManager.recordAttemptAndCount) to the index and the cluster
+     */
+    public static void blockedInDatabase(String ip, String reason, int durationMinutes) {
+        long expiresAt = System.currentTimeMillis() + durationMinutes * 60_000L;
+        BlockIndex.add(ip, expiresAt);
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            node.publishBlock(ip, expiresAt);
+        }
+        System.out.println("🔒 IP Blocked: " + ip + " for " + durationMinutes +
+                " min - Reason: " + reason);
+    }
+
     /**
      * Unblock an IP address
      */
@@ -36,6 +80,11 @@ public class IPBlocker {
         boolean success = DatabaseManager.unblockIP(ipAddress.trim());
 
         if (success) {
+            BlockIndex.remove(ipAddress.trim());
+            ClusterNode node = ClusterNode.get();
+            if (node != null) {
+                node.publishUnblock(ipAddress.trim());
+            }
             System.out.println("🔓 IP Unblocked: " + ipAddress);
         }
 
@@ -43,9 +92,37 @@ public class IPBlocker {
     }
 
     /**
-     * Check if IP is blocked
+     * Unblock several IP addresses in one database transaction. The index
+     * drops them all at once, and only after the database has.
+     */
+    public static boolean unblockIPs(List<String> ipAddresses) {
+        if (DatabaseManager.unblockIPs(ipAddresses) < 0) {
+            return false;
+        }
+
+        BlockIndex.removeAll(ipAddresses);
+        ClusterNode node = ClusterNode.get();
+        if (node != null) {
+            ipAddresses.forEach(node::publishUnblock);
+        }
+        System.out.println("🔓 IPs Unblocked: " + ipAddresses.size());
+        return true;
+    }
+
+    /**
+     * Check if IP is blocked. The in-memory index answers first and also
+     * covers CIDR ranges. Standalone nodes still consult the database on a
+     * miss so blocks written by other processes take effect; clustered
+     * nodes receive those as gossip events and answer from memory alone,
+     * unless the index's last resync failed and it may be missing blocks.
      */
     public static boolean isBlocked(String ipAddress) {
+        if (BlockIndex.isBlocked(ipAddress)) {
+            return true;
+        }
+        if (ClusterNode.get() != null && BlockIndex.isCurrent()) {
+            return false;
+        }
         return DatabaseManager.isIPBlocked(ipAddress);
     }
 
@@ -60,7 +137,46 @@ public class IPBlocker {
      * Set permanent block on IP
      */
     public static boolean setPermanentBlock(String ipAddress, boolean permanent) {
-        return DatabaseManager.setIPPermanentBlock(ipAddress, permanent);
+        boolean success = DatabaseManager.setIPPermanentBlock(ipAddress, permanent);
+        if (success) {
+            ClusterNode node = ClusterNode.get();
+            if (permanent) {
+                BlockIndex.add(ipAddress.trim(), IPPrefixSet.PERMANENT);
+                if (node != null) {
+                    node.publishBlock(ipAddress.trim(), IPPrefixSet.PERMANENT);
+                }
+            } else {
+                // Any remaining timed block comes back on the next index rebuild
+                BlockIndex.remove(ipAddress.trim());
+                if (node != null) {
+                    node.publishUnblock(ipAddress.trim());
+                }
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Set or clear the permanent flag on several IPs in one database transaction
+     */
+    public static boolean setPermanentBlocks(List<String> ipAddresses, boolean permanent) {
+        if (DatabaseManager.setIPPermanentBlocks(ipAddresses, permanent) < 0) {
+            return false;
+        }
+
+        ClusterNode node = ClusterNode.get();
+        if (permanent) {
+            BlockIndex.addAll(ipAddresses, IPPrefixSet.PERMANENT);
+            if (node != null) {
+                ipAddresses.forEach(ip -> node.publishBlock(ip, IPPrefixSet.PERMANENT));
+            }
+        } else {
+            BlockIndex.removeAll(ipAddresses);
+            if (node != null) {
+                ipAddresses.forEach(node::publishUnblock);
+            }
+        }
+        return true;
     }
 
     /**
@@ -0,0 +1,213 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * IP Prefix Set - Compact IPv4 address and CIDR membership with per-entry expiry
+ *
+ * Exact addresses (/32) live in an open-addressing int-to-long hash table,
+ * about 24 bytes per entry. Shorter prefixes live in a binary trie stored in
+ * parallel primitive arrays, so there are no per-entry objects. A lookup is
+ * one hash probe plus at most 32 trie steps, and allocates nothing.
+ *
+ * Expiry values are epoch millis; {@link #PERMANENT} never expires.
+ * Not thread-safe: callers guard access (see BlockIndex).
+ */
+public class IPPrefixSet {
+
+    public static final long PERMANENT = Long.MAX_VALUE;
+
+    // Exact addresses; a slot is empty when its expiry is 0
+    private int[] keys;
+    private long[] expiries;
+    private int exactCount;
+
+    // Prefix trie; node 0 is the root, child index 0 means "no child"
+    private int[] zero;
+    private int[] one;
+    private long[] nodeExpiry;
+    private int nodeCount = 1;
+    private int prefixCount;
+
+    public IPPrefixSet() {
+        this(1024);
+    }
+
+    public IPPrefixSet(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedEntries * 2) - 1) << 1;
+        keys = new int[capacity];
+        expiries = new long[capacity];
+        zero = new int[64];
+        one = new int[64];
+        nodeExpiry = new long[64];
+    }
+
+    // =============================
+    // Updates
+    // =============================
+
+    /**
+     * Add a prefix, keeping the later expiry if it is already present
+     */
+    public void add(int network, int prefixLength, long expiresAt) {
+        if (expiresAt <= 0) return;
+
+        if (prefixLength == 32) {
+            putExact(network, expiresAt);
+            return;
+        }
+
+        int node = 0;
+        for (int depth = 0; depth < prefixLength; depth++) {
+            int[] children = bit(network, depth) == 0 ? zero : one;
+            int next = children[node];
+            if (next == 0) {
+                next = newNode();
+                // arrays may have grown
+                children = bit(network, depth) == 0 ? zero : one;
+                children[node] = next;
+            }
+            node = next;
+        }
+        if (nodeExpiry[node] == 0) prefixCount++;
+        nodeExpiry[node] = Math.max(nodeExpiry[node], expiresAt);
+    }
+
+    public void remove(int network, int prefixLength) {
+        if (prefixLength == 32) {
+            removeExact(network);
+            return;
+        }
+
+        int node = 0;
+        for (int depth = 0; depth < prefixLength; depth++) {
+            node = (bit(network, depth) == 0 ? zero : one)[node];
+            if (node == 0) return;
+        }
+        if (nodeExpiry[node] != 0) prefixCount--;
+        nodeExpiry[node] = 0;
+    }
+
+    // =============================
+    // Lookups
+    // =============================
+
+    /**
+     * Find the latest expiry among all entries covering the address.
+     *
+     * @return expiry in epoch millis, or 0 if no live entry covers it
+     */
+    public long match(int address, long now) {
+        long best = 0;
+
+        int slot = findSlot(address);
+        if (expiries[slot] > now) {
+            best = expiries[slot];
+        }
+
+        int node = 0;
+        for (int depth = 0; ; depth++) {
+            if (nodeExpiry[node] > now && nodeExpiry[node] > best) {
+                best = nodeExpiry[node];
+            }
+            if (depth == 32) break;
+            node = (bit(address, depth) == 0 ? zero : one)[node];
+            if (node == 0) break;
+        }
+        return best;
+    }
+
+    public boolean contains(int address, long now) {
+        return match(address, now) > now;
+    }
+
+    public int size() {
+        return exactCount + prefixCount;
+    }
+
+    // =============================
+    // Exact-address hash table
+    // =============================
+
+    private void putExact(int address, long expiresAt) {
+        int slot = findSlot(address);
+        if (expiries[slot] == 0) {
+            keys[slot] = address;
+            expiries[slot] = expiresAt;
+            if (++exactCount * 2 > keys.length) {
+                resize();
+            }
+        } else {
+            expiries[slot] = Math.max(expiries[slot], expiresAt);
+        }
+    }
+
+    private void removeExact(int address) {
+        int slot = findSlot(address);
+        if (expiries[slot] == 0) return;
+
+        expiries[slot] = 0;
+        exactCount--;
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (expiries[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                expiries[hole] = expiries[next];
+                expiries[next] = 0;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private int findSlot(int address) {
+        int mask = keys.length - 1;
+        int slot = hash(address) & mask;
+        while (expiries[slot] != 0 && keys[slot] != address) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        long[] oldExpiries = expiries;
+        keys = new int[oldKeys.length * 2];
+        expiries = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldExpiries[i] != 0) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                expiries[slot] = oldExpiries[i];
+            }
+        }
+    }
+
+    private static int hash(int address) {
+        int h = address * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // =============================
+    // Trie helpers
+    // =============================
+
+    private int newNode() {
+        if (nodeCount == zero.length) {
+            int capacity = zero.length * 2;
+            zero = Arrays.copyOf(zero, capacity);
+            one = Arrays.copyOf(one, capacity);
+            nodeExpiry = Arrays.copyOf(nodeExpiry, capacity);
+        }
+        return nodeCount++;
+    }
+
+    private static int bit(int address, int depth) {
+        return (address >>> (31 - depth)) & 1;
+    }
+}
@@ -0,0 +1,97 @@
+package logic;
+
+/**
+ * IPv4 helpers - Allocation-free conversions between dotted strings and ints
+ */
+public final class IPv4 {
+
+    private IPv4() {}
+
+    /**
+     * Parse a dotted-quad address.
+     *
+     * @return the address as an unsigned value in the low 32 bits, or -1 if invalid
+     */
+    public static long parse(String address) {
+        if (address == null) return -1;
+
+        int length = address.length();
+        if (length < 7 || length > 15) return -1;
+
+        long result = 0;
+        int octet = -1;
+        int dots = 0;
+        int digits = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == 3) return -1;
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                digits++;
+            } else if (c == '.') {
+                if (octet < 0 || octet > 255 || ++dots > 3) return -1;
+                result = (result << 8) | octet;
+                octet = -1;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+
+        if (dots != 3 || octet < 0 || octet > 255) return -1;
+        return (result << 8) | octet;
+    }
+
+    /**
+     * Parse "a.b.c.d/len" or a bare address (treated as /32).
+     *
+     * @return network in the high 32 bits and prefix length in the low 8, or -1 if invalid
+     */
+    public static long parseCidr(String cidr) {
+        if (cidr == null) return -1;
+
+        int slash = cidr.indexOf('/');
+        if (slash < 0) {
+            long ip = parse(cidr);
+            return ip < 0 ? -1 : (ip << 8) | 32;
+        }
+
+        long ip = parse(cidr.substring(0, slash));
+        int prefix;
+        try {
+            prefix = Integer.parseInt(cidr.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (ip < 0 || prefix < 0 || prefix > 32) return -1;
+
+        return ((ip & mask(prefix)) << 8) | prefix;
+    }
+
+    public static int network(long cidr) {
+        return (int) (cidr >>> 8);
+    }
+
+    public static int prefixLength(long cidr) {
+        return (int) (cidr & 0xFF);
+    }
+
+    public static long mask(int prefixLength) {
+        return prefixLength == 0 ? 0 : (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+    }
+
+    public static String format(int address) {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "." +
+                ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+
+    /**
+     * Canonical text for a parsed CIDR: bare address for /32, else "network/len"
+     */
+    public static String formatCidr(long cidr) {
+        int prefix = prefixLength(cidr);
+        String network = format(network(cidr));
+        return prefix == 32 ? network : network + "/" + prefix;
+    }
+}
@@ -0,0 +1,47 @@
+package logic;
+
+/**
+ * Rate Limiter - Pre-authentication throttling per IP and per username
+ *
+ * Runs before any credential check, so excess attempts cost one hash
+ * lookup instead of a database query.
+ */
+public class RateLimiter {
+
+    // Per IP: bursts of 10, then one attempt every 2 seconds
+    private static final int IP_BURST = 10;
+    private static final double IP_RATE_PER_SECOND = 0.5;
+
+    // Per username: bursts of 5, then one attempt every 6 seconds
+    private static final int USER_BURST = 5;
+    private static final double USER_RATE_PER_SECOND = 1.0 / 6;
+
+    private static final TokenBucketTable ipBuckets =
+            new TokenBucketTable(IP_BURST, IP_RATE_PER_SECOND);
+    private static final TokenBucketTable userBuckets =
+            new TokenBucketTable(USER_BURST, USER_RATE_PER_SECOND);
+
+    /**
+     * Take a token for both the IP and the username.
+     *
+     * @return 0 if the attempt may proceed, otherwise milliseconds until it may be retried
+     */
+    public static long tryAcquire(String ipAddress, String username) {
+        long now = System.nanoTime();
+        long wait = ipBuckets.tryAcquire(ipAddress, now);
+
+        if (username != null && !username.isEmpty()) {
+            wait = Math.max(wait, userBuckets.tryAcquire(username.toLowerCase(), now));
+        }
+
+        return wait == 0 ? 0 : Math.max(1, wait / 1_000_000);
+    }
+
+    public static int trackedIPs() {
+        return ipBuckets.size();
+    }
+
+    public static int trackedUsernames() {
+        return userBuckets.size();
+    }
+}
@@ -0,0 +1,239 @@
+package logic;
+
+import database.CancelToken;
+import database.DatabaseManager;
+import database.LoginAttemptPartitions;
+import database.LoginAttemptPartitions.DayPartition;
+import model.SearchFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retention Manager - Background purge of old login_attempts rows
+ *
+ * Keeps raw attempts for a configurable number of days. On a partitioned
+ * table whole days are dropped; otherwise rows go in small batches with a
+ * pause after each one, so the purge never holds locks or saturates I/O
+ * long enough to be felt on the login path. Expiring days can first be
+ * archived to compressed columnar (.sidrscol) files, which ColumnarReader
+ * reads back or dumps to CSV.
+ *
+ * Configured with system properties:
+ *   sidrs.retention.days        days of raw attempts to keep (default 90, 0 disables)
+ *   sidrs.retention.archiveDir  archive expiring rows here before purging
+ */
+public class RetentionManager {
+
+    private static final int DEFAULT_RETENTION_DAYS = 90;
+    private static final int PARTITIONS_AHEAD_DAYS = 7;
+    private static final long INITIAL_DELAY_MINUTES = 1;
+    private static final long RUN_INTERVAL_HOURS = 6;
+
+    // Batched-delete throttle: pause at least 4x as long as each batch took
+    private static final int DELETE_BATCH_SIZE = 2000;
+    private static final long MIN_PAUSE_MILLIS = 250;
+    private static final int PAUSE_FACTOR = 4;
+
+    // Archive throttle: pause after every progress report from the exporter
+    private static final long ARCHIVE_PAUSE_MILLIS = 20;
+
+    private static final String LOCK_NAME = "sidrs_retention";
+
+    private static ScheduledExecutorService scheduler;
+    private static volatile CancelToken shutdown = new CancelToken();
+
+    private static int retentionDays = DEFAULT_RETENTION_DAYS;
+    private static File archiveDir;
+
+    // ===============================
+    // Start / Stop
+    // ===============================
+    public static synchronized void startFromSystemProperties() {
+        int days = Integer.getInteger("sidrs.retention.days", DEFAULT_RETENTION_DAYS);
+        String dir = System.getProperty("sidrs.retention.archiveDir");
+        start(days, dir == null || dir.isEmpty() ? null : new File(dir));
+    }
+
+    public static synchronized void start(int days, File archiveTo) {
+        if (scheduler != null) {
+            return;
+        }
+
+        retentionDays = days;
+        archiveDir = archiveTo;
+        shutdown = new CancelToken();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sidrs-retention");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(RetentionManager::runOnce,
+                INITIAL_DELAY_MINUTES, RUN_INTERVAL_HOURS * 60, TimeUnit.MINUTES);
+
+        System.out.println("🧹 Retention: keeping " +
+                (days > 0 ? days + " days" : "everything") + " of login attempts" +
+                (archiveTo != null ? ", archiving to " + archiveTo : ""));
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            shutdown.cancel();
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // ===============================
+    // Purge Run
+    // ===============================
+    /**
+     * Create upcoming partitions and purge everything older than the
+     * retention period. Only one node in a cluster does this at a time.
+     */
+    public static void runOnce() {
+        if (!DatabaseManager.acquireLock(LOCK_NAME, 0)) {
+            return;
+        }
+
+        try {
+            LoginAttemptPartitions.ensureAhead(PARTITIONS_AHEAD_DAYS);
+
+            if (retentionDays <= 0) {
+                return;
+            }
+
+            LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+            List<DayPartition> days = LoginAttemptPartitions.listDays();
+
+            long start = System.currentTimeMillis();
+            long purged = days.isEmpty() ? purgeInBatches(cutoff) : dropPartitions(days, cutoff);
+
+            if (purged > 0) {
+                System.out.println("🧹 Purged ~" + purged + " login attempts older than " + cutoff +
+                        " in " + (System.currentTimeMillis() - start) + " ms");
+            }
+        } catch (Exception e) {
+            // Keep the scheduler alive for the next run
+            e.printStackTrace();
+        } finally {
+            DatabaseManager.releaseLock(LOCK_NAME);
+        }
+    }
+
+    // Whole days strictly before the cutoff
+    private static long dropPartitions(List<DayPartition> days, LocalDate cutoff) throws IOException {
+        long purged = 0;
+        for (DayPartition day : days) {
+            if (!day.getDay().isBefore(cutoff) || shutdown.isCancelled()) {
+                break;
+            }
+
+            boolean history = day.getName().equals("p_history");
+            LocalDate from = history ? null : day.getDay();
+            if (!archive(day.getName(), from, day.getDay().plusDays(1))) {
+                break;
+            }
+            if (!LoginAttemptPartitions.drop(day.getName())) {
+                break;
+            }
+            purged += day.getEstimatedRows();
+        }
+        return purged;
+    }
+
+    // Fallback for tables that were never partitioned
+    private static long purgeInBatches(LocalDate cutoff) throws IOException {
+        if (!archive("before-" + cutoff, null, cutoff)) {
+            return 0;
+        }
+
+        Timestamp before = Timestamp.valueOf(cutoff.atStartOfDay());
+        long purged = 0;
+
+        while (!shutdown.isCancelled()) {
+            long batchStart = System.currentTimeMillis();
+            int deleted = DatabaseManager.deleteLoginAttemptsBefore(before, DELETE_BATCH_SIZE);
+            if (deleted <= 0) {
+                break;
+            }
+            purged += deleted;
+            if (deleted < DELETE_BATCH_SIZE) {
+                break;
+            }
+
+            long took = System.currentTimeMillis() - batchStart;
+            if (!pause(Math.max(MIN_PAUSE_MILLIS, took * PAUSE_FACTOR))) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    // ===============================
+    // Archive
+    // ===============================
+    /**
+     * Export attempts in [from, to) to the archive directory, if one is set.
+     * The archive only counts if its row count matches a COUNT(*) of the
+     * range; anything less (query failure, cancellation) keeps the rows.
+     *
+     * @return true if purging may go ahead
+     */
+    private static boolean archive(String label, LocalDate from, LocalDate to) throws IOException {
+        if (archiveDir == null) {
+            return true;
+        }
+        if (!archiveDir.isDirectory() && !archiveDir.mkdirs()) {
+            System.err.println("⚠️ Retention: cannot create archive directory " + archiveDir);
+            return false;
+        }
+
+        SearchFilter filter = new SearchFilter();
+        if (from != null) {
+            filter.setFrom(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        filter.setTo(Timestamp.valueOf(to.atStartOfDay()));
+
+        File file = new File(archiveDir, "login_attempts-" + label + ".sidrscol");
+        long rows;
+        try {
+            rows = DataExporter.exportLoginAttempts(file, DataExporter.Format.COLUMNAR,
+                    filter, shutdown, count -> pause(ARCHIVE_PAUSE_MILLIS));
+        } catch (IOException e) {
+            System.err.println("⚠️ Retention: archiving " + label + " failed, not purging: " + e.getMessage());
+            return false;
+        }
+
+        if (rows < 0) {
+            return false;
+        }
+
+        long expected = DatabaseManager.countLoginAttempts(filter);
+        if (expected != rows) {
+            System.err.println("⚠️ Retention: archive of " + label + " has " + rows + " rows but the range has " +
+                    expected + ", not purging");
+            return false;
+        }
+        System.out.println("📦 Archived " + rows + " login attempts to " + file);
+        return true;
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
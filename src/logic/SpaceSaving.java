@@ -0,0 +1,77 @@
+package logic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving sketch - Approximate top-K frequency counting in fixed memory
+ *
+ * Keeps at most {@code capacity} counters. A new key arriving when the
+ * sketch is full takes over the smallest counter and inherits its count as
+ * an error bound. Any key whose true count exceeds total/capacity is
+ * guaranteed to be tracked. Not thread-safe.
+ */
+public class SpaceSaving {
+
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> index;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        keys = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        index = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String key) {
+        Integer slot = index.get(key);
+        if (slot != null) {
+            counts[slot]++;
+            return;
+        }
+
+        if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            index.put(key, size++);
+            return;
+        }
+
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) min = i;
+        }
+        index.remove(keys[min]);
+        keys[min] = key;
+        errors[min] = counts[min];
+        counts[min]++;
+        index.put(key, min);
+    }
+
+    /**
+     * Add this sketch's counters into the merged map as {count, error}
+     */
+    public void mergeInto(Map<String, long[]> merged) {
+        for (int i = 0; i < size; i++) {
+            long[] totals = merged.computeIfAbsent(keys[i], k -> new long[2]);
+            totals[0] += counts[i];
+            totals[1] += errors[i];
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            keys[i] = null;
+        }
+        index.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
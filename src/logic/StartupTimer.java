@@ -0,0 +1,59 @@
+package logic;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Startup Timer - Records how long each startup phase took to complete,
+ * measured from JVM launch
+ */
+public class StartupTimer {
+
+    private static final long FIRST_PAINT_TARGET_MILLIS = 300;
+
+    private static final long launchedAt = ProcessHandle.current().info().startInstant()
+            .map(instant -> instant.toEpochMilli())
+            .orElse(System.currentTimeMillis());
+
+    private static final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * Record that a phase finished. Only the first mark of a phase counts.
+     */
+    public static void mark(String phase) {
+        long elapsed = record(phase);
+        if (elapsed >= 0) {
+            System.out.println("⏱️ " + phase + ": " + elapsed + " ms");
+        }
+    }
+
+    /**
+     * Record the first paint of the first window
+     */
+    public static void markFirstPaint() {
+        long elapsed = record("first paint");
+        if (elapsed >= 0) {
+            System.out.println("⏱️ first paint: " + elapsed + " ms" +
+                    (elapsed > FIRST_PAINT_TARGET_MILLIS
+                            ? " ⚠️ over the " + FIRST_PAINT_TARGET_MILLIS + " ms target" : ""));
+        }
+    }
+
+    public static long elapsedMillis() {
+        return System.currentTimeMillis() - launchedAt;
+    }
+
+    public static Map<String, Long> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    // Elapsed millis, or -1 if the phase was already recorded
+    private static long record(String phase) {
+        long elapsed = elapsedMillis();
+        synchronized (phases) {
+            return phases.putIfAbsent(phase, elapsed) == null ? elapsed : -1;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package logic;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tarpit - Progressive response delay for failed and rejected logins
+ *
+ * Each failure in the window doubles the delay, from
+ * -Dsidrs.tarpit.baseMillis (0 = off) up to sidrs.tarpit.maxMillis (30000);
+ * blocked and locked-out attempts get the maximum. A delayed response is a
+ * task on one timer thread, not a sleeping thread, so thousands of them
+ * cost only memory. Past sidrs.tarpit.maxPending (10000) responses go out
+ * at once rather than pile up.
+ */
+public class Tarpit {
+
+    private static final long BASE_MILLIS = Long.getLong("sidrs.tarpit.baseMillis", 0);
+    private static final long MAX_MILLIS = Long.getLong("sidrs.tarpit.maxMillis", 30_000);
+    private static final int MAX_PENDING = Integer.getInteger("sidrs.tarpit.maxPending", 10_000);
+
+    private static final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "sidrs-tarpit");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final LongAdder delayed = new LongAdder();
+    private static final LongAdder overflowed = new LongAdder();
+
+    public static boolean isEnabled() {
+        return BASE_MILLIS > 0;
+    }
+
+    /**
+     * @param failures failed attempts in the current window, this one included
+     * @return how long to hold the response, 0 if the tarpit is off
+     */
+    public static long delayFor(int failures) {
+        if (!isEnabled() || failures <= 0) return 0;
+        int doublings = Math.min(failures - 1, 30);
+        return Math.min(MAX_MILLIS, BASE_MILLIS << doublings);
+    }
+
+    /**
+     * Delay for attempts that are turned away outright (blocked, locked)
+     */
+    public static long maxDelay() {
+        return isEnabled() ? MAX_MILLIS : 0;
+    }
+
+    /**
+     * @return a future completed after the delay on the tarpit timer, or an
+     * already completed one if there is no delay or too many are waiting
+     */
+    public static CompletableFuture<Void> delay(long millis) {
+        if (millis <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (pending.incrementAndGet() > MAX_PENDING) {
+            pending.decrementAndGet();
+            overflowed.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        delayed.increment();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        timer.schedule(() -> {
+            pending.decrementAndGet();
+            future.complete(null);
+        }, millis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * Responses currently being held
+     */
+    public static int pendingCount() {
+        return pending.get();
+    }
+
+    public static long totalDelayed() {
+        return delayed.sum();
+    }
+
+    /**
+     * Responses sent without their delay because the tarpit was full
+     */
+    public static long totalOverflowed() {
+        return overflowed.sum();
+    }
+}
@@ -0,0 +1,191 @@
+package logic;
+
+import cluster.ClusterNode;
+import database.CancelToken;
+import database.DatabaseManager;
+import model.BlockedIP;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Threat Feed Importer - Bulk-loads external blocklists into blocked_ips
+ *
+ * Accepted line formats (one entry per line, '#' or ';' starts a comment):
+ * <pre>
+ *   203.0.113.7                       plain address
+ *   198.51.100.0/24                   CIDR range
+ *   203.0.113.7,brute force,2025-01-31 12:00:00   CSV: entry, reason, expiry
+ * </pre>
+ * The CSV expiry may be a timestamp, a date, a number of minutes, or
+ * "permanent". Lines are validated and streamed to the database in batched
+ * upserts, then the block index is rebuilt once, on every cluster node.
+ */
+public class ThreatFeedImporter {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MIN_PREFIX_LENGTH = 8;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    /**
+     * Import a feed.
+     *
+     * @param source                 feed contents
+     * @param defaultReason          reason used when a line has none
+     * @param defaultDurationMinutes block duration when a line has no expiry; 0 = permanent
+     * @param progress               called with the number of lines read so far
+     */
+    public static ImportResult importFeed(Reader source, String defaultReason, int defaultDurationMinutes,
+                                          CancelToken token, LongConsumer progress) throws IOException {
+
+        ImportResult result = new ImportResult();
+        List<BlockedIP> batch = new ArrayList<>(BATCH_SIZE);
+        Timestamp defaultExpiry = defaultDurationMinutes > 0
+                ? new Timestamp(System.currentTimeMillis() + defaultDurationMinutes * 60_000L)
+                : null;
+
+        try (BufferedReader reader = new BufferedReader(source, 64 * 1024)) {
+            String line;
+            while ((line = reader.readLine()) != null && !token.isCancelled()) {
+                result.lines++;
+
+                BlockedIP entry;
+                try {
+                    entry = parseLine(line, defaultReason, defaultExpiry);
+                } catch (IllegalArgumentException e) {
+                    result.reject(result.lines, e.getMessage());
+                    continue;
+                }
+                if (entry == null) continue;
+
+                batch.add(entry);
+                if (batch.size() == BATCH_SIZE) {
+                    flush(batch, result);
+                    progress.accept(result.lines);
+                }
+            }
+        }
+
+        if (!token.isCancelled()) {
+            flush(batch, result);
+        }
+        progress.accept(result.lines);
+        result.cancelled = token.isCancelled();
+
+        // Batches already written stay, so refresh the index either way,
+        // here and on the other cluster nodes (too many entries for events)
+        if (result.imported > 0) {
+            BlockIndex.rebuild();
+            ClusterNode node = ClusterNode.get();
+            if (node != null) {
+                node.requestResync();
+            }
+        }
+
+        System.out.println("📥 Feed import: " + result);
+        return result;
+    }
+
+    /**
+     * Parse one feed line.
+     *
+     * @return the entry, or null for blank and comment lines
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static BlockedIP parseLine(String line, String defaultReason, Timestamp defaultExpiry) {
+        String text = line.trim();
+        if (text.isEmpty() || text.startsWith("#") || text.startsWith(";")) {
+            return null;
+        }
+
+        String[] fields = text.split(",", 3);
+        String address = fields[0].trim();
+        String reason = fields.length > 1 && !fields[1].trim().isEmpty() ? fields[1].trim() : defaultReason;
+
+        long cidr = IPv4.parseCidr(address);
+        if (cidr < 0) {
+            throw new IllegalArgumentException("invalid address or CIDR '" + address + "'");
+        }
+        if (IPv4.prefixLength(cidr) < MIN_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("range too broad '" + address + "'");
+        }
+
+        BlockedIP entry = new BlockedIP(IPv4.formatCidr(cidr), reason);
+        if (fields.length > 2 && !fields[2].trim().isEmpty()) {
+            applyExpiry(entry, fields[2].trim());
+        } else if (defaultExpiry == null) {
+            entry.setPermanent(true);
+        } else {
+            entry.setExpiryTime(defaultExpiry);
+        }
+        return entry;
+    }
+
+    private static void applyExpiry(BlockedIP entry, String value) {
+        if (value.equalsIgnoreCase("permanent")) {
+            entry.setPermanent(true);
+            return;
+        }
+        try {
+            if (value.matches("\\d+")) {
+                entry.setExpiryTime(new Timestamp(System.currentTimeMillis() + Long.parseLong(value) * 60_000L));
+            } else if (value.length() == 10) {
+                entry.setExpiryTime(Timestamp.valueOf(value + " 00:00:00"));
+            } else {
+                entry.setExpiryTime(Timestamp.valueOf(value.replace('T', ' ')));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid expiry '" + value + "'");
+        }
+    }
+
+    private static void flush(List<BlockedIP> batch, ImportResult result) {
+        if (batch.isEmpty()) return;
+
+        int written = DatabaseManager.upsertBlockedIPs(batch);
+        if (written < 0) {
+            result.failed += batch.size();
+        } else {
+            result.imported += written;
+        }
+        batch.clear();
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    public static class ImportResult {
+        private long lines;
+        private long imported;
+        private long rejected;
+        private long failed;
+        private boolean cancelled;
+        private final List<String> errors = new ArrayList<>();
+
+        public long getLines() { return lines; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public long getFailed() { return failed; }
+        public boolean isCancelled() { return cancelled; }
+        public List<String> getErrors() { return errors; }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ImportResult{lines=" + lines + ", imported=" + imported + ", rejected=" + rejected +
+                    ", failed=" + failed + ", cancelled=" + cancelled + "}";
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package logic;
+
+/**
+ * Token Bucket Table - Compact concurrent map of keys to token buckets
+ *
+ * Keys are 64-bit hashes held in striped open-addressing tables of
+ * primitive arrays (about 20 bytes per bucket, no per-entry objects).
+ * Buckets refill lazily when touched. A bucket that has refilled to
+ * capacity is the same as an absent one, so idle entries are dropped
+ * whenever a stripe needs to grow, and at most once a minute otherwise.
+ */
+public class TokenBucketTable {
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+    private static final long SWEEP_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final float capacity;
+    private final double tokensPerNano;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param capacity        burst size
+     * @param tokensPerSecond sustained refill rate
+     */
+    public TokenBucketTable(int capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take one token for the key.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        long hash = hash(key);
+        return stripes[(int) (hash >>> 58) & (STRIPES - 1)].tryAcquire(hash, nowNanos);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 64-bit FNV-1a with a final mix; never returns 0 (the empty-slot marker)
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    private class Stripe {
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private float[] tokens = new float[INITIAL_STRIPE_CAPACITY];
+        private long[] updated = new long[INITIAL_STRIPE_CAPACITY];
+        private int size;
+        private long lastSweep = System.nanoTime();
+
+        synchronized long tryAcquire(long hash, long now) {
+            if (now - lastSweep > SWEEP_INTERVAL_NANOS) {
+                rehash(now);
+            }
+
+            int slot = find(hash);
+            float available;
+
+            if (keys[slot] == 0) {
+                if ((size + 1) * 4 > keys.length * 3) {
+                    rehash(now);
+                    slot = find(hash);
+                }
+                keys[slot] = hash;
+                size++;
+                available = capacity;
+            } else {
+                available = refilled(slot, now);
+            }
+
+            updated[slot] = now;
+            if (available >= 1f) {
+                tokens[slot] = available - 1f;
+                return 0;
+            }
+            tokens[slot] = available;
+            return (long) Math.ceil((1f - available) / tokensPerNano);
+        }
+
+        private float refilled(int slot, long now) {
+            double refill = (now - updated[slot]) * tokensPerNano;
+            return (float) Math.min(capacity, tokens[slot] + refill);
+        }
+
+        private int find(long hash) {
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0 && keys[slot] != hash) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Rebuild the stripe without idle (fully refilled) buckets, sized
+         * to the live entries so it can shrink as well as grow
+         */
+        private void rehash(long now) {
+            long[] oldKeys = keys;
+            float[] oldTokens = tokens;
+            long[] oldUpdated = updated;
+
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0 && refilled(oldKeys, oldTokens, oldUpdated, i, now) < capacity) {
+                    live++;
+                }
+            }
+
+            lastSweep = now;
+            int newCapacity = INITIAL_STRIPE_CAPACITY;
+            while ((live + 1) * 2 > newCapacity) {
+                newCapacity *= 2;
+            }
+
+            keys = new long[newCapacity];
+            tokens = new float[newCapacity];
+            updated = new long[newCapacity];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0 && refilled(oldKeys, oldTokens, oldUpdated, i, now) < capacity) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    tokens[slot] = oldTokens[i];
+                    updated[slot] = oldUpdated[i];
+                    size++;
+                }
+            }
+        }
+
+        private float refilled(long[] k, float[] t, long[] u, int i, long now) {
+            return (float) Math.min(capacity, t[i] + (now - u[i]) * tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package logic;
+
+import database.DatabaseManager;
+import model.TrustedNetwork;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trusted Networks - Allowlist of addresses and CIDR ranges (office NAT,
+ * health checks) that skip detection entirely
+ *
+ * Uses the same IPPrefixSet as the blocklist; other entries in the table
+ * (e.g. IPv6 added by hand) match exactly. Each reload builds a new set
+ * and swaps it in, so lookups take no lock and allocate nothing. Entries
+ * live in trusted_networks and are re-read every
+ * -Dsidrs.trusted.reloadSeconds (default 60), so edits made on any node
+ * reach every node.
+ */
+public class TrustedNetworks {
+
+    private static final int RELOAD_SECONDS = Integer.getInteger("sidrs.trusted.reloadSeconds", 60);
+
+    private static volatile Entries entries = new Entries(new IPPrefixSet(16), Set.of());
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Load the allowlist now and keep reloading it in the background
+     */
+    public static synchronized void start() {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sidrs-trusted-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(TrustedNetworks::reload, 0, RELOAD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * True if the address is on the allowlist. Checked before any other
+     * detection work, so it must stay cheap.
+     */
+    public static boolean isTrusted(String ipAddress) {
+        Entries current = entries;
+        if (current.size == 0 || ipAddress == null) return false;
+
+        long address = IPv4.parse(ipAddress);
+        if (address >= 0) {
+            return current.ipv4.contains((int) address, 0);
+        }
+        return current.other.contains(ipAddress);
+    }
+
+    public static int size() {
+        return entries.size;
+    }
+
+    /**
+     * Re-read the allowlist from the database. On error the current one is kept.
+     *
+     * @return number of entries, or -1 on error
+     */
+    public static int reload() {
+        try {
+            List<TrustedNetwork> networks = DatabaseManager.getTrustedNetworks();
+            if (networks == null) return -1;
+
+            IPPrefixSet ipv4 = new IPPrefixSet(Math.max(16, networks.size()));
+            Set<String> other = new HashSet<>();
+            for (TrustedNetwork network : networks) {
+                long cidr = IPv4.parseCidr(network.getNetwork());
+                if (cidr >= 0) {
+                    ipv4.add(IPv4.network(cidr), IPv4.prefixLength(cidr), IPPrefixSet.PERMANENT);
+                } else {
+                    other.add(network.getNetwork());
+                }
+            }
+
+            int previous = entries.size;
+            entries = new Entries(ipv4, other);
+            if (entries.size != previous) {
+                System.out.println("✅ Trusted networks loaded: " + entries.size + " entries");
+            }
+            return entries.size;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    // ===============================
+    // Management
+    // ===============================
+    /**
+     * Add an IPv4 address or CIDR range
+     */
+    public static boolean add(String network, String note) {
+        String entry = normalize(network);
+        if (entry == null || !DatabaseManager.addTrustedNetwork(entry, note)) {
+            return false;
+        }
+        reload();
+        System.out.println("✅ Trusted network added: " + entry);
+        return true;
+    }
+
+    public static boolean remove(List<String> networks) {
+        if (DatabaseManager.removeTrustedNetworks(networks) < 0) {
+            return false;
+        }
+        reload();
+        System.out.println("✅ Trusted networks removed: " + networks.size());
+        return true;
+    }
+
+    /**
+     * Canonical form of an entry, or null if it is not a valid address or range
+     */
+    public static String normalize(String network) {
+        if (network == null || network.trim().isEmpty()) return null;
+
+        long cidr = IPv4.parseCidr(network.trim());
+        return cidr >= 0 ? IPv4.formatCidr(cidr) : null;
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * One loaded allowlist; never modified after it is published
+     */
+    private static final class Entries {
+        final IPPrefixSet ipv4;
+        final Set<String> other;
+        final int size;
+
+        Entries(IPPrefixSet ipv4, Set<String> other) {
+            this.ipv4 = ipv4;
+            this.other = other;
+            this.size = ipv4.size() + other.size();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package logic;
+
+import database.DatabaseManager;
+import model.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * User Directory - In-memory copy of the users table, loaded once and then
+ * kept current by the code that changes user status
+ *
+ * Readers get an immutable list without locking. Each change copies the
+ * list, replaces only the changed records and tells listeners which rows
+ * changed, so a table bound to it can repaint just those rows.
+ */
+public class UserDirectory {
+
+    /**
+     * Notified on the thread that made the change, in change order. Keep it
+     * short (e.g. hand off to the EDT): it runs under the directory's lock.
+     */
+    public interface Listener {
+        /**
+         * @param users       the full list after the change
+         * @param changedRows indexes into users that changed, or null if the
+         *                    whole list was reloaded
+         */
+        void usersChanged(List<User> users, int[] changedRows);
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile Entries entries = new Entries(new User[0]);
+    private static volatile boolean loaded;
+
+    /**
+     * (Re)load every user from the database
+     */
+    public static void load() {
+        List<User> fresh = DatabaseManager.getAllUsers();
+        synchronized (UserDirectory.class) {
+            entries = new Entries(fresh.toArray(new User[0]));
+            loaded = true;
+            for (Listener listener : listeners) {
+                listener.usersChanged(entries.list, null);
+            }
+        }
+        System.out.println("👥 User directory loaded: " + fresh.size() + " users");
+    }
+
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * All users, ordered by id. The list never changes; a later call may
+     * return a newer one.
+     */
+    public static List<User> getUsers() {
+        return entries.list;
+    }
+
+    public static User get(int userId) {
+        Integer row = entries.rowById.get(userId);
+        return row != null ? entries.list.get(row) : null;
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ===============================
+    // Change Events
+    // ===============================
+    /**
+     * Set the status of the given users, e.g. after an admin lock/unlock
+     *
+     * @param statusById user id -> new status
+     */
+    public static void applyStatus(Map<Integer, String> statusById) {
+        update(current -> statusById);
+    }
+
+    /**
+     * Mirror DatabaseManager.applyLockoutStatus: locks only apply to ACTIVE
+     * users and unlocks only to AUTO_LOCKED ones
+     *
+     * @param changes username -> "AUTO_LOCKED" or "ACTIVE"
+     */
+    public static void applyLockoutStatus(Map<String, String> changes) {
+        update(current -> {
+            Map<Integer, String> statusById = new HashMap<>();
+            for (Map.Entry<String, String> change : changes.entrySet()) {
+                Integer row = current.rowByUsername.get(change.getKey().toLowerCase());
+                if (row == null) continue;
+                User user = current.users[row];
+                String required = "AUTO_LOCKED".equals(change.getValue()) ? "ACTIVE" : "AUTO_LOCKED";
+                if (required.equals(user.getStatus())) {
+                    statusById.put(user.getId(), change.getValue());
+                }
+            }
+            return statusById;
+        });
+    }
+
+    /**
+     * Copy the changed records into a new version and publish it
+     *
+     * @param changesFor works out user id -> new status from the current version
+     */
+    private static synchronized void update(Function<Entries, Map<Integer, String>> changesFor) {
+        if (!loaded) return;
+
+        Entries current = entries;
+        Map<Integer, String> statusById = changesFor.apply(current);
+        User[] next = current.users.clone();
+        int[] rows = new int[statusById.size()];
+        int count = 0;
+
+        for (Map.Entry<Integer, String> change : statusById.entrySet()) {
+            Integer row = current.rowById.get(change.getKey());
+            if (row == null || change.getValue().equals(next[row].getStatus())) continue;
+            next[row] = withStatus(next[row], change.getValue());
+            rows[count++] = row;
+        }
+        if (count == 0) return;
+
+        entries = new Entries(next);
+        int[] changed = Arrays.copyOf(rows, count);
+        for (Listener listener : listeners) {
+            listener.usersChanged(entries.list, changed);
+        }
+    }
+
+    /**
+     * Records are shared with readers, so changes go to a copy
+     */
+    private static User withStatus(User user, String status) {
+        User copy = new User(user.getUsername(), user.getPassword());
+        copy.setId(user.getId());
+        copy.setRole(user.getRole());
+        copy.setStatus(status);
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setLastLogin(user.getLastLogin());
+        return copy;
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * One immutable version of the directory
+     */
+    private static final class Entries {
+        final User[] users;
+        final List<User> list;
+        final Map<Integer, Integer> rowById;
+        // Lower-cased, like AccountLockout's keys and MySQL's default collation
+        final Map<String, Integer> rowByUsername;
+
+        Entries(User[] users) {
+            this.users = users;
+            this.list = Collections.unmodifiableList(Arrays.asList(users));
+            this.rowById = new HashMap<>(users.length * 2);
+            this.rowByUsername = new HashMap<>(users.length * 2);
+            for (int i = 0; i < users.length; i++) {
+                rowById.put(users[i].getId(), i);
+                rowByUsername.put(users[i].getUsername().toLowerCase(), i);
+            }
+        }
+    }
+}
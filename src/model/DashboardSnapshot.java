@@ -0,0 +1,51 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DashboardSnapshot Model - Immutable, versioned view of everything the
+ * admin dashboard displays, published to the UI as a single unit.
+ * Users are not part of it; they live in UserDirectory.
+ */
+public final class DashboardSnapshot {
+    private final long version;
+    private final long createdAt;
+    private final List<LoginAttempt> attempts;
+    private final List<BlockedIP> blockedIPs;
+    private final int totalUsers;
+    private final int activeBlocks;
+    private final int failedLast24h;
+    private final int successLast24h;
+
+    public DashboardSnapshot(long version,
+                             List<LoginAttempt> attempts,
+                             List<BlockedIP> blockedIPs,
+                             int[] stats) {
+        this.version = version;
+        this.createdAt = System.currentTimeMillis();
+        this.attempts = Collections.unmodifiableList(attempts);
+        this.blockedIPs = Collections.unmodifiableList(blockedIPs);
+        this.totalUsers = stats[0];
+        this.activeBlocks = stats[1];
+        this.failedLast24h = stats[2];
+        this.successLast24h = stats[3];
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public long getCreatedAt() { return createdAt; }
+
+    public List<LoginAttempt> getAttempts() { return attempts; }
+    public List<BlockedIP> getBlockedIPs() { return blockedIPs; }
+
+    public int getTotalUsers() { return totalUsers; }
+    public int getActiveBlocks() { return activeBlocks; }
+    public int getFailedLast24h() { return failedLast24h; }
+    public int getSuccessLast24h() { return successLast24h; }
+
+    @Override
+    public String toString() {
+        return "DashboardSnapshot{version=" + version + ", attempts=" + attempts.size() + ", blocked=" + blockedIPs.size() + "}";
+    }
+}
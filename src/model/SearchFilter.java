@@ -0,0 +1,52 @@
+package model;
+
+import java.sql.Timestamp;
+
+/**
+ * SearchFilter Model - Criteria for searching login attempts and blocked IPs.
+ * Null or empty fields are not applied.
+ */
+public class SearchFilter {
+    private String ipPrefix;
+    private String username;
+    private String status;
+    private Timestamp from;
+    private Timestamp to;
+    private boolean newestFirst = true;
+
+    // Constructors
+    public SearchFilter() {}
+
+    // Getters and Setters
+    public String getIpPrefix() { return ipPrefix; }
+    public void setIpPrefix(String ipPrefix) { this.ipPrefix = ipPrefix; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Timestamp getFrom() { return from; }
+    public void setFrom(Timestamp from) { this.from = from; }
+
+    public Timestamp getTo() { return to; }
+    public void setTo(Timestamp to) { this.to = to; }
+
+    public boolean isNewestFirst() { return newestFirst; }
+    public void setNewestFirst(boolean newestFirst) { this.newestFirst = newestFirst; }
+
+    public boolean hasIpPrefix() { return ipPrefix != null && !ipPrefix.isEmpty(); }
+    public boolean hasUsername() { return username != null && !username.isEmpty(); }
+    public boolean hasStatus() { return status != null && !status.isEmpty(); }
+
+    public boolean isEmpty() {
+        return !hasIpPrefix() && !hasUsername() && !hasStatus() && from == null && to == null;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchFilter{ip='" + ipPrefix + "', username='" + username + "', status='" + status +
+                "', from=" + from + ", to=" + to + "}";
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import java.sql.Timestamp;
+
+/**
+ * TrustedNetwork Model - An address or CIDR range that bypasses detection
+ */
+public class TrustedNetwork {
+    private int id;
+    private String network;
+    private String note;
+    private Timestamp createdAt;
+
+    // Constructors
+    public TrustedNetwork() {}
+
+    public TrustedNetwork(String network, String note) {
+        this.network = network;
+        this.note = note;
+    }
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getNetwork() { return network; }
+    public void setNetwork(String network) { this.network = network; }
+
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "TrustedNetwork{network='" + network + "', note='" + note + "'}";
+    }
+}
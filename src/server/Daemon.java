@@ -0,0 +1,72 @@
+package server;
+
+import logic.EngineRuntime;
+import logic.StartupTimer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Daemon - Headless SIDRS node
+ *
+ * Runs the detection engine, ingestion endpoints, metrics and background
+ * schedulers without loading any AWT or Swing classes. Configured with
+ * system properties:
+ * <pre>
+ *   -Dsidrs.http.bind=127.0.0.1   (default; use 0.0.0.0 to listen on all interfaces)
+ *   -Dsidrs.http.port=8080
+ *   -Dsidrs.http.threads=8
+ *   -Dsidrs.http.token=secret     (optional; required as a Bearer token)
+ *   -Dsidrs.tarpit.baseMillis=500 (optional; delays failed and rejected answers, see Tarpit)
+ *   -Dsidrs.detection.databaseCounters=true
+ *                                 (optional; count failures in the database, one call per attempt)
+ * </pre>
+ * plus the sidrs.cluster.* and sidrs.retention.* properties.
+ */
+public class Daemon {
+
+    public static void run() {
+        System.setProperty("java.awt.headless", "true");
+
+        int threads = Integer.getInteger("sidrs.http.threads",
+                Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
+        // One warm connection per HTTP worker
+        if (!EngineRuntime.start(threads, false).join()) {
+            System.err.println("❌ Database connection failed. Check that MySQL is running " +
+                    "and sidrs_db exists.");
+            System.exit(1);
+        }
+
+        IngestionServer server;
+        try {
+            server = new IngestionServer(
+                    new InetSocketAddress(System.getProperty("sidrs.http.bind", "127.0.0.1"),
+                            Integer.getInteger("sidrs.http.port", 8080)),
+                    threads,
+                    System.getProperty("sidrs.http.token"));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        server.start();
+        StartupTimer.mark("daemon ready");
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("SIDRS - Shutting down");
+            server.stop();
+            EngineRuntime.stop();
+            stopped.countDown();
+        }, "sidrs-shutdown"));
+
+        // Worker threads are daemons; keep the JVM alive until shutdown
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import logic.AccountLockout;
+import logic.AttackRateSeries;
+import logic.BehaviorProfiler;
+import logic.BlockIndex;
+import logic.DetectionEngine;
+import logic.DetectionEngine.DetectionResult;
+import logic.RateLimiter;
+import logic.StartupTimer;
+import logic.Tarpit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingestion Server - HTTP front end of the detection engine for headless nodes
+ *
+ * The application being protected calls /v1/check before validating a
+ * password, then reports the outcome to /v1/attempts. Parameters are
+ * form-encoded (body or query string); responses are JSON.
+ * <pre>
+ *   POST /v1/check     ip, username                        -> {"allowed":true} or a rejection
+ *   POST /v1/attempts  ip, username, success[, userAgent]  -> detection result
+ *   GET  /metrics      Prometheus text format
+ *   GET  /health
+ * </pre>
+ * When a token is configured every request except /health must send
+ * "Authorization: Bearer &lt;token&gt;".
+ * <p>
+ * With the tarpit on, failed and rejected answers are held back for the
+ * result's tarpitMillis. The handler thread returns at once; the answer is
+ * written from the HTTP pool when the tarpit timer fires.
+ */
+public class IngestionServer {
+
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    // Set on exchanges answered later by sendLater; route() leaves those open
+    private static final String DEFERRED = "sidrs.deferred";
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final byte[] token;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    public IngestionServer(InetSocketAddress address, int threads, String token) throws IOException {
+        this.token = token == null || token.isEmpty() ? null : token.getBytes(StandardCharsets.UTF_8);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sidrs-http-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(workers);
+
+        route("/v1/check", "POST", true, this::handleCheck);
+        route("/v1/attempts", "POST", true, this::handleAttempt);
+        route("/metrics", "GET", true, this::handleMetrics);
+        route("/health", "GET", false, this::handleHealth);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("🛰️ Ingestion server listening on http://" +
+                server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        server.stop(1);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ===============================
+    // Handlers
+    // ===============================
+    private void handleCheck(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String ip = required(params, "ip");
+        String username = params.get("username");
+
+        DetectionResult rejection = DetectionEngine.checkBeforeAuthentication(ip, username);
+        if (rejection == null) {
+            send(exchange, 200, "application/json", "{\"allowed\":true}");
+        } else {
+            sendLater(exchange, rejection.getTarpitMillis(), toJson(rejection, false));
+        }
+    }
+
+    private void handleAttempt(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String ip = required(params, "ip");
+        String username = required(params, "username");
+        boolean success = Boolean.parseBoolean(required(params, "success"));
+
+        DetectionResult result = DetectionEngine.analyzeAttempt(ip, username, success, params.get("userAgent"));
+        sendLater(exchange, result.getTarpitMillis(), toJson(result, null));
+    }
+
+    private void handleMetrics(HttpExchange exchange, Map<String, String> params) throws IOException {
+        StringBuilder out = new StringBuilder(2048);
+
+        counter(out, "sidrs_login_attempts_total", "Login attempts seen by the detection engine",
+                AttackRateSeries.total(AttackRateSeries.Series.ATTEMPTS));
+        counter(out, "sidrs_login_failures_total", "Failed password checks",
+                AttackRateSeries.total(AttackRateSeries.Series.FAILURES));
+        counter(out, "sidrs_login_rejected_total", "Attempts turned away by a block, throttle or lock",
+                AttackRateSeries.total(AttackRateSeries.Series.BLOCKS));
+
+        gauge(out, "sidrs_block_index_entries", "Addresses and ranges in the block index", BlockIndex.size());
+        gauge(out, "sidrs_locked_accounts", "Accounts locked by detection", AccountLockout.lockedCount());
+        gauge(out, "sidrs_rate_limited_ips", "IP addresses with a live rate-limit bucket", RateLimiter.trackedIPs());
+        gauge(out, "sidrs_rate_limited_usernames", "Usernames with a live rate-limit bucket",
+                RateLimiter.trackedUsernames());
+        gauge(out, "sidrs_behavior_profiles", "Per-user behavior profiles in memory", BehaviorProfiler.profileCount());
+        gauge(out, "sidrs_tarpit_pending", "Responses being held by the tarpit", Tarpit.pendingCount());
+        counter(out, "sidrs_tarpit_delayed_total", "Responses delayed by the tarpit", Tarpit.totalDelayed());
+        counter(out, "sidrs_tarpit_overflow_total", "Responses sent undelayed because the tarpit was full",
+                Tarpit.totalOverflowed());
+
+        Runtime runtime = Runtime.getRuntime();
+        gauge(out, "sidrs_jvm_heap_used_bytes", "JVM heap in use", runtime.totalMemory() - runtime.freeMemory());
+        gauge(out, "sidrs_uptime_seconds", "Seconds since JVM launch", StartupTimer.elapsedMillis() / 1000);
+
+        out.append("# HELP sidrs_http_requests_total HTTP requests by endpoint\n")
+                .append("# TYPE sidrs_http_requests_total counter\n");
+        for (Map.Entry<String, EndpointStats> e : stats.entrySet()) {
+            out.append("sidrs_http_requests_total{endpoint=\"").append(e.getKey()).append("\"} ")
+                    .append(e.getValue().requests.sum()).append('\n');
+        }
+        out.append("# HELP sidrs_http_errors_total HTTP requests answered with an error\n")
+                .append("# TYPE sidrs_http_errors_total counter\n");
+        for (Map.Entry<String, EndpointStats> e : stats.entrySet()) {
+            out.append("sidrs_http_errors_total{endpoint=\"").append(e.getKey()).append("\"} ")
+                    .append(e.getValue().errors.sum()).append('\n');
+        }
+        out.append("# HELP sidrs_http_request_seconds Time spent handling requests\n")
+                .append("# TYPE sidrs_http_request_seconds summary\n");
+        for (Map.Entry<String, EndpointStats> e : stats.entrySet()) {
+            out.append("sidrs_http_request_seconds_sum{endpoint=\"").append(e.getKey()).append("\"} ")
+                    .append(e.getValue().nanos.sum() / 1e9).append('\n');
+            out.append("sidrs_http_request_seconds_count{endpoint=\"").append(e.getKey()).append("\"} ")
+                    .append(e.getValue().requests.sum()).append('\n');
+        }
+
+        send(exchange, 200, "text/plain; version=0.0.4", out.toString());
+    }
+
+    private void handleHealth(HttpExchange exchange, Map<String, String> params) throws IOException {
+        boolean ready = BlockIndex.isLoaded();
+        send(exchange, ready ? 200 : 503, "application/json",
+                "{\"status\":\"" + (ready ? "UP" : "STARTING") + "\"}");
+    }
+
+    // ===============================
+    // Routing
+    // ===============================
+    private void route(String path, String method, boolean authenticated, Endpoint endpoint) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        EndpointStats endpointStats = new EndpointStats();
+        stats.put(name, endpointStats);
+
+        HttpHandler handler = exchange -> {
+            long start = System.nanoTime();
+            try {
+                if (!method.equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    sendError(exchange, 405, "method not allowed");
+                } else if (authenticated && !isAuthorized(exchange)) {
+                    sendError(exchange, 401, "unauthorized");
+                } else if (!path.equals(exchange.getRequestURI().getPath())) {
+                    sendError(exchange, 404, "not found");
+                } else {
+                    endpoint.handle(exchange, readParams(exchange));
+                }
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (Exception e) {
+                e.printStackTrace();
+                sendError(exchange, 500, "internal error");
+            } finally {
+                if (exchange.getResponseCode() >= 400) {
+                    endpointStats.errors.increment();
+                }
+                endpointStats.requests.increment();
+                endpointStats.nanos.add(System.nanoTime() - start);
+                if (exchange.getAttribute(DEFERRED) == null) {
+                    exchange.close();
+                }
+            }
+        };
+        server.createContext(path, handler);
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        if (token == null) {
+            return true;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        byte[] presented = header.substring(7).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, token);
+    }
+
+    // ===============================
+    // Request / Response Helpers
+    // ===============================
+    private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (body.size() + n > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("request body too large");
+                }
+                body.write(buffer, 0, n);
+            }
+            parseForm(body.toString(StandardCharsets.UTF_8), params);
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Send a 200 JSON answer after the tarpit delay without holding this
+     * thread; with no delay it is sent right away. Must be the handler's
+     * last action.
+     */
+    private void sendLater(HttpExchange exchange, long delayMillis, String json) throws IOException {
+        if (delayMillis <= 0) {
+            send(exchange, 200, "application/json", json);
+            return;
+        }
+
+        exchange.setAttribute(DEFERRED, Boolean.TRUE);
+        Tarpit.delay(delayMillis).thenRunAsync(() -> {
+            try {
+                send(exchange, 200, "application/json", json);
+            } catch (IOException e) {
+                // The client gave up waiting
+            } finally {
+                exchange.close();
+            }
+        }, workers);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "application/json", "{\"error\":" + quote(message) + "}");
+    }
+
+    // allowed is only part of /v1/check answers
+    private static String toJson(DetectionResult result, Boolean allowed) {
+        return "{" + (allowed != null ? "\"allowed\":" + allowed + "," : "") +
+                "\"blocked\":" + result.isBlocked() +
+                ",\"throttled\":" + result.isThrottled() +
+                ",\"accountLocked\":" + result.isAccountLocked() +
+                ",\"retryAfterMillis\":" + result.getRetryAfterMillis() +
+                ",\"threatLevel\":" + quote(String.valueOf(result.getThreatLevel())) +
+                ",\"failedAttempts\":" + result.getFailedAttempts() +
+                ",\"anomalyScore\":" + result.getAnomalyScore() +
+                (result.getCountry() != null ? ",\"country\":" + quote(result.getCountry()) : "") +
+                (result.getAsn() != 0 ? ",\"asn\":" + result.getAsn() : "") +
+                (result.isTrusted() ? ",\"trusted\":true" : "") +
+                (result.getTarpitMillis() > 0 ? ",\"tarpitMillis\":" + result.getTarpitMillis() : "") +
+                ",\"message\":" + quote(result.getMessage()) + "}";
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" counter\n")
+                .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" gauge\n")
+                .append(name).append(' ').append(value).append('\n');
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange exchange, Map<String, String> params) throws IOException;
+    }
+
+    private static class EndpointStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+}
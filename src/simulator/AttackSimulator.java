@@ -0,0 +1,458 @@
+package simulator;
+
+import database.DatabaseManager;
+import logic.AccountLockout;
+import logic.DetectionEngine;
+import logic.DetectionEngine.DetectionResult;
+import logic.EngineRuntime;
+import simulator.TrafficGenerator.Attempt;
+import simulator.TrafficGenerator.Kind;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Attack Simulator - Load generator for finding the capacity of the
+ * detection path
+ *
+ * Drives synthetic or recorded login traffic through the detection engine,
+ * either in this process or against a daemon's ingestion endpoint, and
+ * reports throughput, latency percentiles and detection accuracy.
+ *
+ * Traffic is open-loop: attempt n is due at start + n / rate, and latency is
+ * measured from that due time, so a stalled engine shows up as queueing
+ * delay instead of silently lowering the offered load.
+ *
+ * The in-process engine really records attempts, blocks addresses and locks
+ * accounts, so it refuses to run against the default database: give it a
+ * scratch one with -Dsidrs.db.url. It never joins the cluster, and on exit
+ * deletes the attempts and blocks it wrote and releases the accounts it
+ * locked (everything written after it started).
+ * <pre>
+ *   java -Dsidrs.db.url=jdbc:mysql://localhost:3306/sidrs_sim simulator.AttackSimulator [options]
+ *     --rate N          attempts per second, 0 = as fast as possible (default 1000)
+ *     --duration S      seconds to run (default 30)
+ *     --attempts N      stop after N attempts instead
+ *     --threads N       worker threads (default 8)
+ *     --users N         legitimate user population (default 100000)
+ *     --mix L,B,S       legit / brute-force / stuffing weights (default 70,10,20)
+ *     --replay FILE     replay a login-attempts CSV export instead
+ *     --target URL      send to a daemon, e.g. http://127.0.0.1:8080
+ *     --token T         bearer token for the daemon
+ * </pre>
+ */
+public class AttackSimulator {
+
+    private static final long REPORT_INTERVAL_NANOS = 5_000_000_000L;
+    private static final int CLEANUP_BATCH_SIZE = 10_000;
+
+    private final TrafficGenerator generator;
+    private final Target target;
+    private final int threads;
+    private final long intervalNanos;
+    private final long maxAttempts;
+    private final long durationNanos;
+
+    private final AtomicLong ticket = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    public AttackSimulator(TrafficGenerator generator, Target target, int threads,
+                           double rate, long maxAttempts, long durationSeconds) {
+        this.generator = generator;
+        this.target = target;
+        this.threads = threads;
+        this.intervalNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+        this.maxAttempts = maxAttempts > 0 ? maxAttempts : Long.MAX_VALUE;
+        this.durationNanos = durationSeconds * 1_000_000_000L;
+    }
+
+    // ===============================
+    // Entry Point
+    // ===============================
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "1000"));
+        long attempts = Long.parseLong(options.getOrDefault("attempts", "0"));
+        long duration = Long.parseLong(options.getOrDefault("duration", attempts > 0 ? "0" : "30"));
+
+        TrafficGenerator generator;
+        if (options.containsKey("replay")) {
+            generator = new TrafficGenerator(new BufferedReader(new FileReader(options.get("replay"))));
+        } else {
+            String[] mix = options.getOrDefault("mix", "70,10,20").split(",");
+            generator = new TrafficGenerator(Integer.parseInt(mix[0].trim()),
+                    Integer.parseInt(mix[1].trim()), Integer.parseInt(mix[2].trim()),
+                    Integer.parseInt(options.getOrDefault("users", "100000")));
+        }
+
+        Target target;
+        if (options.containsKey("target")) {
+            target = new HttpTarget(options.get("target"), options.get("token"));
+            if (options.containsKey("replay")) {
+                System.out.println("⚠️ Replaying recorded addresses and usernames: the daemon will block " +
+                        "and lock them for real");
+            }
+        } else {
+            if (DatabaseManager.usesDefaultDatabase()) {
+                System.err.println("❌ The in-process engine writes attempts, blocks and account locks; " +
+                        "point it at a scratch database with -Dsidrs.db.url=jdbc:mysql://host:3306/sidrs_sim");
+                System.exit(1);
+            }
+            if (!EngineRuntime.start(threads, false, false).join()) {
+                System.err.println("❌ Database connection failed; the in-process engine needs MySQL");
+                System.exit(1);
+            }
+
+            long lastAttemptId = DatabaseManager.getMaxAttemptId();
+            Timestamp startedAt = DatabaseManager.getDatabaseTime();
+            if (lastAttemptId < 0 || startedAt == null) {
+                System.err.println("❌ Could not mark the start of the run; nothing written");
+                System.exit(1);
+            }
+            // Also runs on Ctrl-C
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> cleanUp(lastAttemptId, startedAt),
+                    "sidrs-sim-cleanup"));
+            target = new InProcessTarget();
+            System.out.println("🧪 Using " + DatabaseManager.getDatabaseUrl());
+        }
+
+        System.out.println("🚀 Simulating " + (rate > 0 ? (long) rate + " attempts/s" : "unthrottled") +
+                " on " + threads + " threads against " + target);
+
+        Report report = new AttackSimulator(generator, target, threads, rate, attempts, duration).run();
+        report.print();
+        System.exit(0);
+    }
+
+    // ===============================
+    // Run
+    // ===============================
+    public Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> running = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(start, i);
+            Thread t = new Thread(worker, "sidrs-sim-" + i);
+            t.setDaemon(true);
+            workers.add(worker);
+            running.add(t);
+            t.start();
+        }
+
+        // Progress every few seconds until the workers finish
+        long lastCount = 0;
+        long lastReport = start;
+        for (Thread t : running) {
+            while (t.isAlive()) {
+                t.join(250);
+                long now = System.nanoTime();
+                if (now - lastReport >= REPORT_INTERVAL_NANOS) {
+                    long count = completed.get();
+                    System.out.printf("   %,d attempts, %,.0f/s%n",
+                            count, (count - lastCount) * 1e9 / (now - lastReport));
+                    lastCount = count;
+                    lastReport = now;
+                }
+            }
+        }
+
+        Report report = new Report(System.nanoTime() - start);
+        for (Worker worker : workers) {
+            report.merge(worker.stats);
+        }
+        return report;
+    }
+
+    private class Worker implements Runnable {
+        private final long start;
+        private final SplittableRandom random;
+        private final Stats stats = new Stats();
+        private final Attempt attempt = new Attempt();
+
+        Worker(long start, int index) {
+            this.start = start;
+            this.random = new SplittableRandom(0x5EED + index);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long n = ticket.getAndIncrement();
+                if (n >= maxAttempts) {
+                    return;
+                }
+
+                long due = intervalNanos > 0 ? start + n * intervalNanos : System.nanoTime();
+                if (durationNanos > 0 && due - start >= durationNanos) {
+                    return;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                try {
+                    if (!generator.next(random, attempt)) {
+                        return;
+                    }
+                    Outcome outcome = target.send(attempt);
+                    stats.record(attempt.kind, outcome, System.nanoTime() - due);
+                } catch (Exception e) {
+                    stats.record(attempt.kind, Outcome.ERROR, System.nanoTime() - due);
+                }
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    // ===============================
+    // Cleanup
+    // ===============================
+    /**
+     * Remove what the in-process run wrote after the given marks
+     */
+    private static void cleanUp(long lastAttemptId, Timestamp startedAt) {
+        // Lock status writes still queued would otherwise land after the cleanup
+        AccountLockout.flushNow();
+
+        long attempts = 0;
+        int deleted;
+        do {
+            deleted = DatabaseManager.deleteLoginAttemptsAfter(lastAttemptId, CLEANUP_BATCH_SIZE);
+            attempts += Math.max(deleted, 0);
+        } while (deleted == CLEANUP_BATCH_SIZE);
+
+        int blocks = DatabaseManager.deleteBlocksSince(startedAt);
+        int accounts = DatabaseManager.releaseLockoutsSince(startedAt, AccountLockout.getLockoutMinutes());
+
+        if (deleted < 0 || blocks < 0 || accounts < 0) {
+            System.err.println("⚠️ Cleanup incomplete; simulator rows are those written after " + startedAt);
+        }
+        System.out.printf("🧹 Removed %,d attempts and %,d blocks, released %,d accounts%n",
+                attempts, Math.max(blocks, 0), Math.max(accounts, 0));
+    }
+
+    // ===============================
+    // Options
+    // ===============================
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    public enum Outcome {
+        /** Allowed through and not flagged */
+        ALLOWED,
+        /** Turned away before authentication (throttle, block, lock) */
+        REJECTED,
+        /** Accepted for analysis, which then blocked the IP or locked the account */
+        DETECTED,
+        ERROR
+    }
+
+    public interface Target {
+        Outcome send(Attempt attempt) throws Exception;
+    }
+
+    /**
+     * Calls the detection engine directly; the password check itself is
+     * simulated by the generator
+     */
+    static class InProcessTarget implements Target {
+        @Override
+        public Outcome send(Attempt attempt) {
+            if (DetectionEngine.checkBeforeAuthentication(attempt.ip, attempt.username) != null) {
+                return Outcome.REJECTED;
+            }
+            DetectionResult result = DetectionEngine.analyzeAttempt(
+                    attempt.ip, attempt.username, attempt.success, attempt.userAgent);
+            return result.isBlocked() || result.isAccountLocked() ? Outcome.DETECTED : Outcome.ALLOWED;
+        }
+
+        @Override
+        public String toString() {
+            return "in-process engine";
+        }
+    }
+
+    /**
+     * Sends each attempt to a daemon's /v1/check and /v1/attempts
+     */
+    static class HttpTarget implements Target {
+        private final HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        private final String baseUrl;
+        private final String token;
+
+        HttpTarget(String baseUrl, String token) {
+            this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+            this.token = token;
+        }
+
+        @Override
+        public Outcome send(Attempt attempt) throws Exception {
+            String who = "ip=" + encode(attempt.ip) + "&username=" + encode(attempt.username);
+
+            String check = post("/v1/check", who);
+            if (check.contains("\"allowed\":false")) {
+                return Outcome.REJECTED;
+            }
+
+            String result = post("/v1/attempts", who + "&success=" + attempt.success +
+                    (attempt.userAgent != null ? "&userAgent=" + encode(attempt.userAgent) : ""));
+            return result.contains("\"blocked\":true") || result.contains("\"accountLocked\":true")
+                    ? Outcome.DETECTED : Outcome.ALLOWED;
+        }
+
+        private String post(String path, String form) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + " from " + path);
+            }
+            return response.body();
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return baseUrl;
+        }
+    }
+
+    /**
+     * Per-thread counters; merged into the report at the end
+     */
+    static class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final long[][] outcomes = new long[Kind.values().length][Outcome.values().length];
+
+        void record(Kind kind, Outcome outcome, long latencyNanos) {
+            latency.record(latencyNanos);
+            outcomes[kind == null ? Kind.REPLAY.ordinal() : kind.ordinal()][outcome.ordinal()]++;
+        }
+    }
+
+    public static class Report {
+        private final long elapsedNanos;
+        private final Stats total = new Stats();
+
+        Report(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void merge(Stats stats) {
+            total.latency.merge(stats.latency);
+            for (int k = 0; k < stats.outcomes.length; k++) {
+                for (int o = 0; o < stats.outcomes[k].length; o++) {
+                    total.outcomes[k][o] += stats.outcomes[k][o];
+                }
+            }
+        }
+
+        public long getAttempts() {
+            return total.latency.getCount();
+        }
+
+        public double getThroughput() {
+            return getAttempts() * 1e9 / elapsedNanos;
+        }
+
+        public long percentileMicros(double percentile) {
+            return total.latency.percentile(percentile) / 1000;
+        }
+
+        private long count(Kind kind, Outcome outcome) {
+            return total.outcomes[kind.ordinal()][outcome.ordinal()];
+        }
+
+        private long count(Kind kind) {
+            long sum = 0;
+            for (long c : total.outcomes[kind.ordinal()]) sum += c;
+            return sum;
+        }
+
+        private long flagged(Kind kind) {
+            return count(kind, Outcome.REJECTED) + count(kind, Outcome.DETECTED);
+        }
+
+        public void print() {
+            LatencyHistogram latency = total.latency;
+
+            System.out.println();
+            System.out.println("📊 Simulation results");
+            System.out.printf("   Attempts:    %,d in %.1f s (%,.0f/s)%n",
+                    getAttempts(), elapsedNanos / 1e9, getThroughput());
+            System.out.printf("   Latency:     p50 %,d µs  p90 %,d µs  p99 %,d µs  p99.9 %,d µs  max %,d µs%n",
+                    percentileMicros(50), percentileMicros(90), percentileMicros(99),
+                    percentileMicros(99.9), latency.getMax() / 1000);
+
+            long errors = 0;
+            for (Kind kind : Kind.values()) errors += count(kind, Outcome.ERROR);
+            if (errors > 0) {
+                System.out.printf("   Errors:      %,d%n", errors);
+            }
+
+            System.out.println();
+            System.out.println("🎯 Detection");
+            for (Kind kind : Kind.values()) {
+                long n = count(kind);
+                if (n == 0) continue;
+                System.out.printf("   %-12s %,10d attempts  %,10d rejected  %,10d detected  %6.2f%% flagged%n",
+                        kind, n, count(kind, Outcome.REJECTED), count(kind, Outcome.DETECTED),
+                        100.0 * flagged(kind) / n);
+            }
+
+            long attacks = count(Kind.BRUTE_FORCE) + count(Kind.STUFFING);
+            long legit = count(Kind.LEGIT);
+            if (attacks > 0) {
+                System.out.printf("   Attack attempts stopped:      %6.2f%%%n",
+                        100.0 * (flagged(Kind.BRUTE_FORCE) + flagged(Kind.STUFFING)) / attacks);
+            }
+            if (legit > 0) {
+                System.out.printf("   Legitimate attempts refused:  %6.2f%% (false positives)%n",
+                        100.0 * flagged(Kind.LEGIT) / legit);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package simulator;
+
+import logic.IPv4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traffic Generator - Synthetic or recorded streams of login attempts
+ *
+ * Synthetic traffic mixes three populations:
+ * <ul>
+ *   <li>Legitimate users, each logging in from a stable home address
+ *       (10.0.0.0/8) and occasionally mistyping a password</li>
+ *   <li>Brute-force bots: a small, fixed set of addresses (198.18.0.0/15)
+ *       each hammering one account</li>
+ *   <li>Credential stuffing: every attempt from a new address out of
+ *       100.64.0.0/10 (about four million), spread over many usernames</li>
+ * </ul>
+ * Recorded traffic is read from a login-attempts CSV export and replayed
+ * without ground truth.
+ */
+public class TrafficGenerator {
+
+    public enum Kind { LEGIT, BRUTE_FORCE, STUFFING, REPLAY }
+
+    private static final double LEGIT_TYPO_RATE = 0.05;
+    private static final int BRUTE_FORCE_BOTS = 64;
+    private static final long STUFFING_BASE = 0x64400000L;   // 100.64.0.0
+    private static final long STUFFING_SPACE = 1L << 22;      // /10
+
+    private static final String BROWSER_AGENT = "Mozilla/5.0 (X11; Linux x86_64) SimBrowser/1.0";
+    private static final String BOT_AGENT = "python-requests/2.31";
+
+    private final int legitWeight;
+    private final int bruteWeight;
+    private final int stuffingWeight;
+    private final int users;
+    private final AtomicLong stuffingSequence = new AtomicLong();
+    private final BufferedReader replay;
+
+    /**
+     * Synthetic traffic with the given relative weights
+     */
+    public TrafficGenerator(int legitWeight, int bruteWeight, int stuffingWeight, int users) {
+        if (legitWeight + bruteWeight + stuffingWeight <= 0) {
+            throw new IllegalArgumentException("traffic mix is empty");
+        }
+        this.legitWeight = legitWeight;
+        this.bruteWeight = bruteWeight;
+        this.stuffingWeight = stuffingWeight;
+        this.users = Math.max(1, users);
+        this.replay = null;
+    }
+
+    /**
+     * Recorded traffic from a CSV export (id, username, ip_address, status, ...)
+     */
+    public TrafficGenerator(BufferedReader replay) throws IOException {
+        this.legitWeight = 0;
+        this.bruteWeight = 0;
+        this.stuffingWeight = 0;
+        this.users = 0;
+        this.replay = replay;
+        replay.readLine();   // header
+    }
+
+    /**
+     * Fill the next attempt in place
+     *
+     * @return false when a replay has run out
+     */
+    public boolean next(SplittableRandom random, Attempt out) throws IOException {
+        if (replay != null) {
+            return nextReplay(out);
+        }
+
+        int pick = random.nextInt(legitWeight + bruteWeight + stuffingWeight);
+        if (pick < legitWeight) {
+            int user = random.nextInt(users);
+            out.set(Kind.LEGIT, homeAddress(user), userName(user),
+                    random.nextDouble() >= LEGIT_TYPO_RATE, BROWSER_AGENT);
+        } else if (pick < legitWeight + bruteWeight) {
+            int bot = random.nextInt(BRUTE_FORCE_BOTS);
+            out.set(Kind.BRUTE_FORCE, IPv4.format((int) (0xC6120000L + bot * 257L)),
+                    userName((int) ((bot * 7919L) % users)), false, BOT_AGENT);
+        } else {
+            long n = stuffingSequence.getAndIncrement();
+            // Odd multiplier walks the whole /10 before repeating
+            long address = STUFFING_BASE + ((n * 2654435761L) & (STUFFING_SPACE - 1));
+            String username = random.nextInt(4) == 0
+                    ? "guess" + random.nextInt(1_000_000)
+                    : userName(random.nextInt(users));
+            out.set(Kind.STUFFING, IPv4.format((int) address), username, false, BOT_AGENT);
+        }
+        return true;
+    }
+
+    private boolean nextReplay(Attempt out) throws IOException {
+        String line;
+        synchronized (replay) {
+            line = replay.readLine();
+        }
+        if (line == null) {
+            return false;
+        }
+
+        // user_agent is last, so commas inside it stay in one field
+        String[] fields = line.split(",", 6);
+        if (fields.length < 4) {
+            return nextReplay(out);
+        }
+        out.set(Kind.REPLAY, unquote(fields[2]), unquote(fields[1]),
+                "SUCCESS".equals(unquote(fields[3])),
+                fields.length > 5 ? unquote(fields[5]) : null);
+        return true;
+    }
+
+    private static String homeAddress(int user) {
+        return IPv4.format(0x0A000000 + (user & 0xFFFFFF));
+    }
+
+    private static String userName(int user) {
+        return "user" + user;
+    }
+
+    private static String unquote(String field) {
+        if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+            return field.substring(1, field.length() - 1).replace("\"\"", "\"");
+        }
+        return field;
+    }
+
+    // =============================
+    // Inner Classes
+    // =============================
+
+    /**
+     * One generated attempt; reused by each worker thread
+     */
+    public static class Attempt {
+        Kind kind;
+        String ip;
+        String username;
+        boolean success;
+        String userAgent;
+
+        void set(Kind kind, String ip, String username, boolean success, String userAgent) {
+            this.kind = kind;
+            this.ip = ip;
+            this.username = username;
+            this.success = success;
+            this.userAgent = userAgent;
+        }
+
+        public boolean isAttack() {
+            return kind == Kind.BRUTE_FORCE || kind == Kind.STUFFING;
+        }
+    }
+}